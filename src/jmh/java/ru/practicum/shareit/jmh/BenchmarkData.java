@@ -0,0 +1,64 @@
+package ru.practicum.shareit.jmh;
+
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Набор данных для бенчмарков: вещи одного владельца, у каждой вещи запрос, прошедшее и будущее бронирования
+ * и несколько отзывов. Данные строятся в памяти, без базы данных.
+ */
+class BenchmarkData {
+    static final int COMMENTS_PER_ITEM = 3;
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 8, 1, 12, 0);
+
+    final User owner;
+
+    final List<Item> items = new ArrayList<>();
+
+    final List<ItemRequest> requests = new ArrayList<>();
+
+    final List<Booking> lastBookings = new ArrayList<>();
+
+    final List<Booking> nextBookings = new ArrayList<>();
+
+    final List<Booking> bookings = new ArrayList<>();
+
+    final List<Comment> comments = new ArrayList<>();
+
+    BenchmarkData(int size) {
+        owner = new User(1L, "owner", "owner@email.com");
+        User booker = new User(2L, "booker", "booker@email.com");
+        long bookingId = 1;
+        long commentId = 1;
+
+        for (long id = 1; id <= size; id++) {
+            ItemRequest request = new ItemRequest(id, "request_" + id, booker, NOW.minusDays(id), new ArrayList<>());
+            Item item = new Item(id, "item_" + id, "description of item " + id, true, owner, request, 0L);
+            request.getItems().add(item);
+            requests.add(request);
+            items.add(item);
+
+            Booking last = new Booking(bookingId++, NOW.minusDays(3), NOW.minusDays(2), item, booker,
+                    BookingStatus.APPROVED, 0L);
+            Booking next = new Booking(bookingId++, NOW.plusDays(2), NOW.plusDays(3), item, booker,
+                    BookingStatus.WAITING, 0L);
+            lastBookings.add(last);
+            nextBookings.add(next);
+            bookings.add(next);
+            bookings.add(last);
+
+            for (int i = 0; i < COMMENTS_PER_ITEM; i++) {
+                comments.add(new Comment(commentId++, "comment " + i + " for item " + id, item, booker,
+                        NOW.minusDays(1).plusMinutes(i)));
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.jmh;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.availability.ItemAvailabilityCache;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
+import javax.persistence.EntityManager;
+import javax.validation.Validator;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Сборка списка вещей владельца ({@link ItemServiceImpl#getUserItems}): преобразование вещей,
+ * раскладка последних и ближайших бронирований и отзывов по вещам.
+ * Репозитории заменены заглушками, возвращающими готовые списки, поэтому измеряются только циклы в памяти.
+ * Сервис создаётся контекстом Spring с внедрением зависимостей по типу, как в приложении, а не вызовом
+ * конструктора с позиционными аргументами.
+ * Запуск: mvn verify -P jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemServiceBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private GenericApplicationContext context;
+
+    private ItemServiceImpl itemService;
+
+    private Long ownerId;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData data = new BenchmarkData(size);
+        ownerId = data.owner.getId();
+
+        UserRepository userRepository = stub(UserRepository.class,
+                Map.of("findById", () -> Optional.of(data.owner)));
+        ItemRepository itemRepository = stub(ItemRepository.class,
+                Map.of("findItemsByOwnerIdOrderById", () -> data.items));
+        BookingRepository bookingRepository = stub(BookingRepository.class,
+                Map.of("findLastBookingByItemIds", () -> data.lastBookings,
+                        "findNextBookingByItemIds", () -> data.nextBookings));
+        CommentRepository commentRepository = stub(CommentRepository.class,
+                Map.of("findCommentsByItemIds", () -> data.comments));
+
+        context = new GenericApplicationContext();
+        context.registerBean(UserLookup.class,
+                () -> new UserLookup(userRepository, new SimpleMeterRegistry(), 1, Duration.ofHours(1)));
+        context.registerBean(ItemRepository.class, () -> itemRepository);
+        context.registerBean(BookingRepository.class, () -> bookingRepository);
+        context.registerBean(CommentRepository.class, () -> commentRepository);
+
+        for (Class<?> unused : List.of(ItemRequestRepository.class, ItemSearchIndex.class, EntityManager.class,
+                ItemAvailabilityCache.class, PlatformTransactionManager.class, Validator.class)) {
+            registerUnused(context, unused);
+        }
+
+        context.registerBean(ItemServiceImpl.class);
+        context.refresh();
+
+        itemService = context.getBean(ItemServiceImpl.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemView> getUserItems() {
+        return itemService.getUserItems(ownerId);
+    }
+
+    /**
+     * Зависимость, которая не участвует в {@link ItemServiceImpl#getUserItems}: любой вызов завершается ошибкой.
+     */
+    private static <T> void registerUnused(GenericApplicationContext context, Class<T> type) {
+        context.registerBean(type, () -> Mockito.mock(type, invocation -> {
+            throw new UnsupportedOperationException(invocation.getMethod().getName());
+        }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Map<String, Supplier<Object>> results) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Supplier<Object> result = results.get(method.getName());
+
+            if (result == null) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+
+            return result.get();
+        });
+    }
+}
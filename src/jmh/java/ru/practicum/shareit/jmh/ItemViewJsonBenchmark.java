@@ -0,0 +1,98 @@
+package ru.practicum.shareit.jmh;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.config.JsonConfig;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Comment;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация списка {@link ItemView} с бронированиями и отзывами в JSON: рефлексивный databind
+ * против модуля Blackbird ({@link JsonConfig}). Кроме числа операций в секунду выводится счётчик bytes -
+ * объём записанного JSON в байтах в секунду.
+ * ObjectMapper собирается тем же построителем, что и в приложении.
+ * Запуск: mvn verify -P jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemViewJsonBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    @Param({"reflection", "blackbird"})
+    private String serializer;
+
+    private ObjectWriter writer;
+
+    private List<ItemView> itemViews;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData data = new BenchmarkData(size);
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+
+        if ("blackbird".equals(serializer)) {
+            builder.modulesToInstall(new JsonConfig().blackbirdModule());
+        }
+
+        ObjectMapper objectMapper = builder.build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class,
+                ItemView.class));
+        itemViews = ItemMapper.toItemView(data.items);
+
+        for (int i = 0; i < itemViews.size(); i++) {
+            ItemView itemView = itemViews.get(i);
+            itemView.setLastBooking(BookingMapper.toBookingShortView(data.lastBookings.get(i)));
+            itemView.setNextBooking(BookingMapper.toBookingShortView(data.nextBookings.get(i)));
+            List<Comment> comments = data.comments.subList(i * BenchmarkData.COMMENTS_PER_ITEM,
+                    (i + 1) * BenchmarkData.COMMENTS_PER_ITEM);
+            itemView.setComments(CommentMapper.toCommentView(comments));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeItemViews(WrittenBytes writtenBytes) throws JsonProcessingException {
+        byte[] json = writer.writeValueAsBytes(itemViews);
+        writtenBytes.bytes += json.length;
+
+        return json;
+    }
+
+    /**
+     * Счётчик записанных байт, JMH выводит его как скорость (байт в секунду).
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class WrittenBytes {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.jmh;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.request.dto.ItemRequestUserView;
+import ru.practicum.shareit.request.mapper.ItemRequestMapper;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование списков сущностей в DTO ответа.
+ * Запуск: mvn verify -P jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private BenchmarkData data;
+
+    @Setup
+    public void setUp() {
+        data = new BenchmarkData(size);
+    }
+
+    @Benchmark
+    public List<ItemView> itemMapperToItemView() {
+        return ItemMapper.toItemView(data.items);
+    }
+
+    @Benchmark
+    public List<BookingView> bookingMapperToBookingView() {
+        return BookingMapper.toBookingView(data.bookings);
+    }
+
+    @Benchmark
+    public List<ItemRequestUserView> itemRequestMapperToItemRequestUserView() {
+        return ItemRequestMapper.toItemRequestUserView(data.requests);
+    }
+}
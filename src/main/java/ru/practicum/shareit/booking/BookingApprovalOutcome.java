@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking;
+
+/**
+ * Результат одобрения или отклонения бронирования в пакетном запросе.
+ */
+public enum BookingApprovalOutcome {
+    UPDATED, NOT_FOUND, ALREADY_PROCESSED, CONFLICT
+}
@@ -14,14 +14,20 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingApprovalRequest;
+import ru.practicum.shareit.booking.dto.BookingApprovalView;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exeption.BadRequestException;
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
 import java.util.List;
 
 /**
@@ -35,6 +41,12 @@ import java.util.List;
 public class BookingController {
     private static final String USER = "X-Sharer-User-Id";
 
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+
+    private static final int MAX_PAGE_SIZE = 20;
+
+    private static final int MAX_APPROVALS = 500;
+
     private final BookingService bookingService;
 
     /**
@@ -50,28 +62,48 @@ public class BookingController {
 
     /**
      * Получение списка бронирований пользователя.
+     * С параметром after выдача продолжается с позиции курсора, иначе — со смещения from.
+     * Параметры after и from вместе не допускаются.
      */
     @GetMapping
     public ResponseEntity<List<BookingView>> getBookingsByBooker(@RequestHeader(USER) Long userId,
                                                  @RequestParam(defaultValue = "ALL") BookingState state,
                                                  @RequestParam(required = false) @Min(0) Integer from,
-                                                 @RequestParam(required = false) @Min(1) @Max(20) Integer size) {
+                                                 @RequestParam(required = false) @Min(1) @Max(20) Integer size,
+                                                 @RequestParam(required = false) String after) {
         log.info("Получен запрос GET /bookings со статусом {} от пользователя {}.", state, userId);
 
-        return ResponseEntity.ok(bookingService.getBookingsByBooker(userId, state, from, size));
+        if (after != null) {
+            checkCursorWithoutOffset(from);
+            int pageSize = size != null ? size : MAX_PAGE_SIZE;
+
+            return toCursorPage(bookingService.getBookingsByBookerAfter(userId, state, after, pageSize), after);
+        }
+
+        return toPage(bookingService.getBookingsByBooker(userId, state, from, size), size);
     }
 
     /**
      * Получение списка бронирований для владельца вещей.
+     * С параметром after выдача продолжается с позиции курсора, иначе — со смещения from.
+     * Параметры after и from вместе не допускаются.
      */
     @GetMapping("/owner")
     public ResponseEntity<List<BookingView>> getBookingsByOwner(@RequestHeader(USER) Long userId,
                                                 @RequestParam(defaultValue = "ALL") BookingState state,
                                                 @RequestParam(required = false) @Min(0) Integer from,
-                                                @RequestParam(required = false) @Min(1) @Max(20) Integer size) {
+                                                @RequestParam(required = false) @Min(1) @Max(20) Integer size,
+                                                @RequestParam(required = false) String after) {
         log.info("Получен запрос GET /bookings/owner со статусом {} от пользователя {}.", state, userId);
 
-        return ResponseEntity.ok(bookingService.getBookingsByOwner(userId, state, from, size));
+        if (after != null) {
+            checkCursorWithoutOffset(from);
+            int pageSize = size != null ? size : MAX_PAGE_SIZE;
+
+            return toCursorPage(bookingService.getBookingsByOwnerAfter(userId, state, after, pageSize), after);
+        }
+
+        return toPage(bookingService.getBookingsByOwner(userId, state, from, size), size);
     }
 
     /**
@@ -85,6 +117,20 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.create(userId, bookingDto));
     }
 
+    /**
+     * Пакетное одобрение или отклонение бронирований владельцем.
+     * Для каждого бронирования возвращается результат в порядке запроса.
+     */
+    @PatchMapping("/approve")
+    public ResponseEntity<List<BookingApprovalView>> approveBookings(
+            @RequestHeader(USER) Long userId,
+            @RequestBody @NotEmpty @Size(max = MAX_APPROVALS) List<@Valid BookingApprovalRequest> approvals) {
+        log.info("Получен запрос PATCH /bookings/approve на {} бронирований от пользователя {}",
+                approvals.size(), userId);
+
+        return ResponseEntity.ok(bookingService.approveBookings(userId, approvals));
+    }
+
     /**
      * Одобрение или отклонение нового бронирования.
      */
@@ -96,4 +142,35 @@ public class BookingController {
 
         return ResponseEntity.ok(bookingService.approveBooking(userId, bookingId, approved));
     }
+
+    /**
+     * Для полной страницы в заголовке X-Next-Cursor передается курсор следующей страницы.
+     */
+    private ResponseEntity<List<BookingView>> toPage(List<BookingView> bookings, Integer size) {
+        if (size == null || bookings.isEmpty() || bookings.size() < size) {
+            return ResponseEntity.ok(bookings);
+        }
+
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR, BookingMapper.toCursorToken(bookings.get(bookings.size() - 1)))
+                .body(bookings);
+    }
+
+    /**
+     * В режиме курсора заголовок X-Next-Cursor передается всегда: курсор последнего бронирования страницы,
+     * а для пустой страницы - исходный курсор. Признак конца выдачи - пустая страница.
+     */
+    private ResponseEntity<List<BookingView>> toCursorPage(List<BookingView> bookings, String after) {
+        String nextCursor = bookings.isEmpty() ? after : BookingMapper.toCursorToken(bookings.get(bookings.size() - 1));
+
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR, nextCursor)
+                .body(bookings);
+    }
+
+    private void checkCursorWithoutOffset(Integer from) {
+        if (from != null) {
+            throw new BadRequestException("Параметры after и from не могут быть указаны одновременно");
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import javax.validation.constraints.NotNull;
+
+/**
+ * Параметры пакетного одобрения или отклонения бронирования.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class BookingApprovalRequest {
+    /**
+     * Идентификатор бронирования.
+     */
+    @NotNull
+    private Long bookingId;
+
+    /**
+     * Одобрить (true) или отклонить (false).
+     */
+    @NotNull
+    private Boolean approved;
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.BookingApprovalOutcome;
+import ru.practicum.shareit.booking.BookingStatus;
+
+/**
+ * DTO для ответа, результат пакетного одобрения или отклонения одного бронирования.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class BookingApprovalView {
+    /**
+     * Идентификатор бронирования.
+     */
+    private Long bookingId;
+
+    /**
+     * Результат.
+     */
+    private BookingApprovalOutcome outcome;
+
+    /**
+     * Статус бронирования после запроса. Не заполняется, если бронирование не найдено.
+     */
+    private BookingStatus status;
+}
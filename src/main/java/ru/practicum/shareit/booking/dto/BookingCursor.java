@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.model.Booking;
+import java.time.LocalDateTime;
+
+/**
+ * Позиция в списке {@link Booking}, отсортированном по убыванию даты начала и идентификатора.
+ * Передается клиенту в виде непрозрачной строки (параметр after).
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class BookingCursor {
+    /**
+     * Дата начала последнего полученного бронирования.
+     */
+    private final LocalDateTime startDt;
+
+    /**
+     * Идентификатор последнего полученного бронирования.
+     */
+    private final Long id;
+}
@@ -31,4 +31,12 @@ public class BookingView {
     private IdFieldView booker;
 
     private IdNameFieldView item;
+
+    /**
+     * Конструктор для выборки проекцией (select new) без загрузки связанных сущностей.
+     */
+    public BookingView(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status,
+                       Long bookerId, Long itemId, String itemName) {
+        this(id, start, end, status, new IdFieldView(bookerId), new IdNameFieldView(itemId, itemName));
+    }
 }
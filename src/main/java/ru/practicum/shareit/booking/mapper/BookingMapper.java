@@ -2,18 +2,26 @@ package ru.practicum.shareit.booking.mapper;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exeption.BadRequestException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.shareitutils.dto.IdFieldView;
 import ru.practicum.shareit.shareitutils.dto.IdNameFieldView;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class BookingMapper {
+    private static final char CURSOR_SEPARATOR = '_';
+
     public static BookingView toBookingView(Booking source) {
         return new BookingView(
                 source.getId(),
@@ -34,10 +42,32 @@ public class BookingMapper {
         Item item = new Item();
         item.setId(source.getItemId());
 
-        return new Booking(null, source.getStart(), source.getEnd(), item, null, null);
+        return new Booking(null, source.getStart(), source.getEnd(), item, null, null, null);
     }
 
     public static BookingShortView toBookingShortView(Booking source) {
         return new BookingShortView(source.getId(), source.getBooker().getId());
     }
+
+    public static String toCursorToken(BookingView source) {
+        String cursor = source.getStart().toString() + CURSOR_SEPARATOR + source.getId();
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BookingCursor toBookingCursor(String token) {
+        try {
+            String cursor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = cursor.lastIndexOf(CURSOR_SEPARATOR);
+
+            if (separator < 0) {
+                throw new BadRequestException(String.format("Некорректный курсор %s", token));
+            }
+
+            return new BookingCursor(LocalDateTime.parse(cursor.substring(0, separator)),
+                    Long.parseLong(cursor.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException(String.format("Некорректный курсор %s", token));
+        }
+    }
 }
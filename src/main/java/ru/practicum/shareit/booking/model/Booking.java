@@ -19,7 +19,9 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 
 /**
@@ -35,7 +37,8 @@ import java.time.LocalDateTime;
 @EqualsAndHashCode
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     @Column(name = "booking_id")
     private Long id;
 
@@ -56,4 +59,8 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     @Column(name = "booking_status")
     private BookingStatus status;
+
+    @Version
+    @Column(name = "booking_version", nullable = false)
+    private Long version;
 }
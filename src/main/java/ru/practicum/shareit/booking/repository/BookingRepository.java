@@ -1,99 +1,73 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.shareitutils.etag.ContentStamp;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @Query("select b " +
-            "from Booking as b " +
-            "inner join b.booker as u " +
-            "where " +
-            "u.id = ?1 " +
-            "and (" +
-            "?2 = 'ALL'" +
-            "or ?2 = 'CURRENT' and current_timestamp() between b.startDt and b.endDt " +
-            "or ?2 = 'PAST' and b.endDt < current_timestamp() " +
-            "or ?2 = 'FUTURE' and b.startDt > current_timestamp() " +
-            "or ?2 = 'WAITING' and b.status = 'WAITING' " +
-            "or ?2 = 'REJECTED' and b.status = 'REJECTED' " +
-            ") " +
-            "order by b.startDt desc")
-    List<Booking> getBookingsByBooker(Long userId, String state);
-
-    @Query("select b " +
-            "from Booking as b " +
-            "inner join b.booker as u " +
-            "where " +
-            "u.id = ?1 " +
-            "and (" +
-            "?2 = 'ALL'" +
-            "or ?2 = 'CURRENT' and current_timestamp() between b.startDt and b.endDt " +
-            "or ?2 = 'PAST' and b.endDt < current_timestamp() " +
-            "or ?2 = 'FUTURE' and b.startDt > current_timestamp() " +
-            "or ?2 = 'WAITING' and b.status = 'WAITING' " +
-            "or ?2 = 'REJECTED' and b.status = 'REJECTED' " +
-            ") " +
-            "order by b.startDt desc")
-    List<Booking> getBookingsByBookerPageable(Long userId, String state, Pageable pageable);
-
-    @Query("select b " +
-            "from Booking as b " +
-            "inner join b.item as i " +
-            "inner join i.owner as o " +
-            "where " +
-            "o.id = ?1 " +
-            "and (" +
-            "?2 = 'ALL'" +
-            "or ?2 = 'CURRENT' and current_timestamp() between b.startDt and b.endDt " +
-            "or ?2 = 'PAST' and b.endDt < current_timestamp() " +
-            "or ?2 = 'FUTURE' and b.startDt > current_timestamp() " +
-            "or ?2 = 'WAITING' and b.status = 'WAITING' " +
-            "or ?2 = 'REJECTED' and b.status = 'REJECTED' " +
-            ") " +
-            "order by b.startDt desc")
-    List<Booking> getBookingsByOwner(Long userId, String state);
-
-    @Query("select b " +
-            "from Booking as b " +
-            "inner join b.item as i " +
-            "inner join i.owner as o " +
-            "where " +
-            "o.id = ?1 " +
-            "and (" +
-            "?2 = 'ALL'" +
-            "or ?2 = 'CURRENT' and current_timestamp() between b.startDt and b.endDt " +
-            "or ?2 = 'PAST' and b.endDt < current_timestamp() " +
-            "or ?2 = 'FUTURE' and b.startDt > current_timestamp() " +
-            "or ?2 = 'WAITING' and b.status = 'WAITING' " +
-            "or ?2 = 'REJECTED' and b.status = 'REJECTED' " +
-            ") " +
-            "order by b.startDt desc")
-    List<Booking> getBookingsByOwnerPageable(Long userId, String state, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingSearchRepository,
+        BookingStatusRepository {
+    List<Booking> findBookingsByItemIdAndStatusInAndEndDtAfterOrderByStartDt(Long itemId,
+                                                                          Collection<BookingStatus> statuses,
+                                                                          LocalDateTime endDt);
 
-    @Query("select b " +
-            "from Booking as b " +
-            "inner join b.item as i " +
+    /**
+     * Последнее (с наибольшей датой окончания) начавшееся и не отклонённое бронирование каждой вещи.
+     */
+    @Query(value = "select t.* " +
+            "from (" +
+            "select b.*, row_number() over (" +
+            "partition by b.item_id order by b.booking_enddt desc, b.booking_id desc) as rn " +
+            "from bookings as b " +
             "where " +
-            "i.id in (?1) " +
-            "and b.startDt < ?2 " +
-            "and b.status != 'REJECTED'")
+            "b.item_id in (?1) " +
+            "and b.booking_startdt < ?2 " +
+            "and b.booking_status <> 'REJECTED'" +
+            ") as t " +
+            "where t.rn = 1", nativeQuery = true)
     List<Booking> findLastBookingByItemIds(
             List<Long> itemIds, LocalDateTime dt);
 
-    @Query("select b " +
-            "from Booking as b " +
-            "inner join b.item as i " +
+    /**
+     * Ближайшее (с наименьшей датой начала) будущее и не отклонённое бронирование каждой вещи.
+     */
+    @Query(value = "select t.* " +
+            "from (" +
+            "select b.*, row_number() over (" +
+            "partition by b.item_id order by b.booking_startdt, b.booking_id) as rn " +
+            "from bookings as b " +
             "where " +
-            "i.id in (?1) " +
-            "and b.startDt > ?2 " +
-            "and b.status != 'REJECTED'")
+            "b.item_id in (?1) " +
+            "and b.booking_startdt > ?2 " +
+            "and b.booking_status <> 'REJECTED'" +
+            ") as t " +
+            "where t.rn = 1", nativeQuery = true)
     List<Booking> findNextBookingByItemIds(
             List<Long> itemIds, LocalDateTime dt);
 
+    /**
+     * Сводка о бронированиях вещей для ETag ответа с последним и следующим бронированием.
+     * В счётчик изменений кроме суммы версий входит число бронирований, начавшихся к моменту dt:
+     * последнее и следующее бронирование меняются и без изменения строк, когда наступает начало бронирования.
+     * Идентификаторы, версии и число начавшихся бронирований только растут, поэтому любое изменение
+     * меняет хотя бы одно поле сводки. Имена в ответе с бронированиями не участвуют, только идентификаторы.
+     */
+    @Query("select new ru.practicum.shareit.shareitutils.etag.ContentStamp(" +
+            "count(b), " +
+            "coalesce(max(b.id), 0L), " +
+            "coalesce(sum(b.version), 0L) + coalesce(sum(case when b.startDt < ?2 then 1L else 0L end), 0L)) " +
+            "from Booking as b " +
+            "where " +
+            "b.item.id in ?1")
+    ContentStamp findBookingStampByItemIds(Collection<Long> itemIds, LocalDateTime dt);
+
     @Query("select b " +
             "from Booking as b " +
             "inner join b.item as i " +
@@ -106,4 +80,56 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "and b.status != 'WAITING'")
     List<Booking> findBookingForAllowCommentPageable(
             Long itemId, Long userId, LocalDateTime dt, Pageable pageable);
+
+    /**
+     * Есть ли у вещи ожидающее или подтверждённое бронирование, пересекающееся с периодом [start, end).
+     * Активные бронирования вещи между собой не пересекаются, поэтому достаточно взять для каждого статуса
+     * последнее бронирование, начинающееся раньше end, и сравнить его окончание со start.
+     * Каждая выборка - одна строка из индекса idx_bookings_item_status, сколько бы бронирований ни было у вещи.
+     */
+    default boolean existsOverlappingBooking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        for (BookingStatus status : List.of(BookingStatus.WAITING, BookingStatus.APPROVED)) {
+            List<LocalDateTime> endDts = findLatestBookingEndDtStartedBefore(itemId, status, end, PageRequest.of(0, 1));
+
+            if (!endDts.isEmpty() && endDts.get(0).isAfter(start)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Query("select b.endDt " +
+            "from Booking as b " +
+            "where " +
+            "b.item.id = ?1 " +
+            "and b.status = ?2 " +
+            "and b.startDt < ?3 " +
+            "order by b.startDt desc")
+    List<LocalDateTime> findLatestBookingEndDtStartedBefore(Long itemId, BookingStatus status, LocalDateTime end,
+                                                            Pageable pageable);
+
+    /**
+     * Бронирования из списка, принадлежащие вещам владельца.
+     */
+    @Query("select b " +
+            "from Booking as b " +
+            "inner join b.item as i " +
+            "where " +
+            "b.id in ?1 " +
+            "and i.owner.id = ?2")
+    List<Booking> findBookingsByIdsAndItemOwnerId(Collection<Long> bookingIds, Long ownerId);
+
+    /**
+     * Смена статуса бронирования, если с момента чтения оно не изменялось (та же версия) и всё ещё ожидает
+     * подтверждения. Строка не блокируется заранее: при параллельном изменении обновляется 0 строк.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("update Booking as b " +
+            "set b.status = ?3, b.version = b.version + 1 " +
+            "where " +
+            "b.id = ?1 " +
+            "and b.version = ?2 " +
+            "and b.status = 'WAITING'")
+    int updateWaitingBookingStatus(Long bookingId, Long version, BookingStatus status);
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import java.util.List;
+
+/**
+ * Выборка {@link Booking} по набору условий, собранных из {@link BookingSpecifications}.
+ */
+public interface BookingSearchRepository {
+    /**
+     * Бронирования, удовлетворяющие условию, в порядке убывания даты начала, сразу в виде {@link BookingView}:
+     * одним запросом выбираются только нужные колонки бронирования и наименование вещи, без загрузки сущностей
+     * в контекст персистентности.
+     * Для {@link Pageable#unpaged()} возвращается вся выборка, без запроса количества строк.
+     */
+    List<BookingView> findBookingViews(Specification<Booking> specification, Pageable pageable);
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.model.Booking;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+import java.util.List;
+
+public class BookingSearchRepositoryImpl implements BookingSearchRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingView> findBookingViews(Specification<Booking> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingView> query = cb.createQuery(BookingView.class);
+        Root<Booking> root = query.from(Booking.class);
+
+        query.select(cb.construct(BookingView.class,
+                root.get("id"),
+                root.get("startDt"),
+                root.get("endDt"),
+                root.get("status"),
+                root.get("booker").get("id"),
+                root.get("item").get("id"),
+                root.get("item").get("name")));
+
+        return getResultList(query, root, specification, pageable);
+    }
+
+    private <T> List<T> getResultList(CriteriaQuery<T> query, Root<Booking> root,
+                                      Specification<Booking> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        query.where(specification.toPredicate(root, query, cb))
+                .orderBy(cb.desc(root.get("startDt")), cb.desc(root.get("id")));
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        return typedQuery.getResultList();
+    }
+}
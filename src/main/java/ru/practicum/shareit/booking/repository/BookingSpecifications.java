@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import java.time.LocalDateTime;
+
+/**
+ * Условия выборки {@link Booking}.
+ * Каждому {@link BookingState} соответствует отдельный простой предикат,
+ * чтобы планировщик мог использовать индексы по датам и статусу бронирования.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookingSpecifications {
+    public static Specification<Booking> byBooker(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("booker").get("id"), userId);
+    }
+
+    public static Specification<Booking> byItemOwner(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("item").get("owner").get("id"), userId);
+    }
+
+    public static Specification<Booking> byState(BookingState state, LocalDateTime dateTime) {
+        switch (state) {
+            case CURRENT:
+                return (root, query, cb) -> cb.and(
+                        cb.lessThanOrEqualTo(root.<LocalDateTime>get("startDt"), dateTime),
+                        cb.greaterThanOrEqualTo(root.<LocalDateTime>get("endDt"), dateTime));
+            case PAST:
+                return (root, query, cb) -> cb.lessThan(root.<LocalDateTime>get("endDt"), dateTime);
+            case FUTURE:
+                return (root, query, cb) -> cb.greaterThan(root.<LocalDateTime>get("startDt"), dateTime);
+            case WAITING:
+                return byStatus(BookingStatus.WAITING);
+            case REJECTED:
+                return byStatus(BookingStatus.REJECTED);
+            default:
+                return (root, query, cb) -> cb.conjunction();
+        }
+    }
+
+    /**
+     * Бронирования, следующие за курсором в порядке (startDt desc, id desc).
+     * Условие поиска по ключу, вместо OFFSET.
+     */
+    public static Specification<Booking> after(BookingCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.<LocalDateTime>get("startDt"), cursor.getStartDt()),
+                cb.and(
+                        cb.equal(root.get("startDt"), cursor.getStartDt()),
+                        cb.lessThan(root.<Long>get("id"), cursor.getId())));
+    }
+
+    private static Specification<Booking> byStatus(BookingStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.repository;
+
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Пакетное изменение статуса ожидающих {@link Booking} с проверкой версии каждого бронирования.
+ */
+public interface BookingStatusRepository {
+    /**
+     * Перевод ожидающих бронирований в новые статусы одним пакетом JDBC. Бронирование изменяется,
+     * только если оно ещё ожидает подтверждения и его версия совпадает с прочитанной, поэтому
+     * бронирование, изменённое параллельным запросом, в результат не попадает.
+     * Перед обновлением контекст персистентности сбрасывается в базу данных, после - очищается.
+     *
+     * @return идентификаторы изменённых бронирований
+     */
+    Set<Long> updateWaitingBookingsStatus(Collection<Booking> bookings, Map<Long, BookingStatus> newStatuses);
+}
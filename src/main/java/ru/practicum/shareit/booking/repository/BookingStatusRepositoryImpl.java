@@ -0,0 +1,59 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.hibernate.Session;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class BookingStatusRepositoryImpl implements BookingStatusRepository {
+    private static final String UPDATE_WAITING_STATUS = "update bookings " +
+            "set booking_status = ?, booking_version = booking_version + 1 " +
+            "where booking_id = ? and booking_version = ? and booking_status = 'WAITING'";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Set<Long> updateWaitingBookingsStatus(Collection<Booking> bookings,
+                                                 Map<Long, BookingStatus> newStatuses) {
+        if (bookings.isEmpty()) {
+            return Set.of();
+        }
+
+        List<Booking> orderedBookings = new ArrayList<>(bookings);
+        entityManager.flush();
+
+        // Драйверы PostgreSQL и H2 возвращают число изменённых строк для каждого выражения пакета.
+        int[] counts = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_WAITING_STATUS)) {
+                for (Booking booking : orderedBookings) {
+                    statement.setString(1, newStatuses.get(booking.getId()).name());
+                    statement.setLong(2, booking.getId());
+                    statement.setLong(3, booking.getVersion());
+                    statement.addBatch();
+                }
+
+                return statement.executeBatch();
+            }
+        });
+
+        entityManager.clear();
+        Set<Long> updatedIds = new HashSet<>();
+
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 1) {
+                updatedIds.add(orderedBookings.get(i).getId());
+            }
+        }
+
+        return updatedIds;
+    }
+}
@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingApprovalRequest;
+import ru.practicum.shareit.booking.dto.BookingApprovalView;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingView;
 import java.util.List;
@@ -12,7 +14,13 @@ public interface BookingService {
 
     List<BookingView> getBookingsByOwner(Long userId, BookingState state, Integer from, Integer size);
 
+    List<BookingView> getBookingsByBookerAfter(Long userId, BookingState state, String after, int size);
+
+    List<BookingView> getBookingsByOwnerAfter(Long userId, BookingState state, String after, int size);
+
     BookingView create(Long userId, BookingRequest bookingDto);
 
     BookingView approveBooking(Long userId, Long bookingId, Boolean approved);
+
+    List<BookingApprovalView> approveBookings(Long userId, List<BookingApprovalRequest> approvals);
 }
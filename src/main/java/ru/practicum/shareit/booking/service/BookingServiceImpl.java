@@ -2,24 +2,41 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingApprovalOutcome;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingApprovalRequest;
+import ru.practicum.shareit.booking.dto.BookingApprovalView;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.BookingSpecifications;
 import ru.practicum.shareit.exeption.BadRequestException;
+import ru.practicum.shareit.exeption.ConflictException;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityCache;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.shareitutils.pageable.OffsetPageRequest;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -29,7 +46,9 @@ public class BookingServiceImpl implements BookingService {
 
     private final ItemRepository itemRepository;
 
-    private final UserRepository userRepository;
+    private final UserLookup userLookup;
+
+    private final ItemAvailabilityCache itemAvailabilityCache;
 
     @Override
     public BookingView getBooking(Long userId, long bookingId) {
@@ -54,15 +73,7 @@ public class BookingServiceImpl implements BookingService {
 
         findUserById(userId);
 
-        if (from == null || size == null) {
-            return BookingMapper.toBookingView(bookingRepository.getBookingsByBooker(userId, state.name()));
-        } else {
-            int page = from / size;
-            Pageable pageable = PageRequest.of(page, size);
-
-            return BookingMapper.toBookingView(bookingRepository.getBookingsByBookerPageable(userId, state.name(),
-                    pageable));
-        }
+        return getBookings(BookingSpecifications.byBooker(userId), state, getPageable(from, size));
     }
 
     @Override
@@ -71,25 +82,41 @@ public class BookingServiceImpl implements BookingService {
 
         findUserById(userId);
 
-        if (from == null || size == null) {
-            return BookingMapper.toBookingView(bookingRepository.getBookingsByOwner(userId, state.name()));
-        } else {
-            int page = from / size;
-            Pageable pageable = PageRequest.of(page, size);
+        return getBookings(BookingSpecifications.byItemOwner(userId), state, getPageable(from, size));
+    }
 
-            return BookingMapper.toBookingView(bookingRepository.getBookingsByOwnerPageable(userId, state.name(),
-                    pageable));
-        }
+    @Override
+    public List<BookingView> getBookingsByBookerAfter(Long userId, BookingState state, String after, int size) {
+        log.info("Запрос списка бронирований со статусом {} пользователем с идентификатором {} после {}",
+                state, userId, after);
+
+        findUserById(userId);
+        BookingCursor cursor = BookingMapper.toBookingCursor(after);
+
+        return getBookings(BookingSpecifications.byBooker(userId).and(BookingSpecifications.after(cursor)),
+                state, OffsetPageRequest.of(0, size));
+    }
+
+    @Override
+    public List<BookingView> getBookingsByOwnerAfter(Long userId, BookingState state, String after, int size) {
+        log.info("Запрос списка бронирований со статусом {} владельцем с идентификатором {} после {}",
+                state, userId, after);
+
+        findUserById(userId);
+        BookingCursor cursor = BookingMapper.toBookingCursor(after);
+
+        return getBookings(BookingSpecifications.byItemOwner(userId).and(BookingSpecifications.after(cursor)),
+                state, OffsetPageRequest.of(0, size));
     }
 
     @Override
     @Transactional
     public BookingView create(Long userId, BookingRequest bookingRequest) {
-        log.info("Попытка создать бронирование {} пользователем с идентификатором {}", bookingRequest, userId);
+        log.debug("Попытка создать бронирование {} пользователем с идентификатором {}", bookingRequest, userId);
 
         User user = findUserById(userId);
         Long itemId = bookingRequest.getItemId();
-        Item item = findItemById(itemId);
+        Item item = findItemByIdForUpdate(itemId);
 
         if (user.getId().equals(item.getOwner().getId())) {
             throw new NotFoundException("Попытка забронировать собственную вещь");
@@ -99,15 +126,26 @@ public class BookingServiceImpl implements BookingService {
             throw new BadRequestException(String.format("Вещь с itemId = %d занята", itemId));
         }
 
+        if (bookingRepository.existsOverlappingBooking(itemId, bookingRequest.getStart(), bookingRequest.getEnd())) {
+            throw new ConflictException(
+                    String.format("Вещь с itemId = %d уже забронирована на пересекающийся период", itemId));
+        }
+
         Booking booking = BookingMapper.fromBookingRequest(bookingRequest);
-        User booker = new User();
 
-        booker.setId(userId);
-        booking.setBooker(booker);
+        booking.setItem(item);
+        booking.setBooker(user);
         booking.setStatus(BookingStatus.WAITING);
 
-        Booking newBooking = bookingRepository.save(booking);
-        newBooking.setItem(item);
+        Booking newBooking;
+
+        try {
+            newBooking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException(e.getMostSpecificCause().getMessage());
+        }
+
+        itemAvailabilityCache.invalidate(itemId);
 
         return BookingMapper.toBookingView(newBooking);
     }
@@ -129,16 +167,95 @@ public class BookingServiceImpl implements BookingService {
             throw new BadRequestException("Бронирование уже одобрено или отклонено");
         }
 
-        bookingForUpdate.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        BookingStatus newStatus = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        int updated = bookingRepository.updateWaitingBookingStatus(bookingId, bookingForUpdate.getVersion(),
+                newStatus);
 
-        Booking updatedBooking = bookingRepository.save(bookingForUpdate);
-        updatedBooking.setItem(item);
+        if (updated == 0) {
+            throw new ConflictException(String.format(
+                    "Бронирование с идентификатором %d было изменено параллельным запросом", bookingId));
+        }
+
+        itemAvailabilityCache.invalidate(item.getId());
+        bookingForUpdate.setStatus(newStatus);
+        bookingForUpdate.setVersion(bookingForUpdate.getVersion() + 1);
+        bookingForUpdate.setItem(item);
 
-        return BookingMapper.toBookingView(updatedBooking);
+        return BookingMapper.toBookingView(bookingForUpdate);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingApprovalView> approveBookings(Long userId, List<BookingApprovalRequest> approvals) {
+        log.info("Попытка одобрить или отказать в {} бронированиях владельцем с идентификатором {}",
+                approvals.size(), userId);
+
+        findUserById(userId);
+        Map<Long, BookingStatus> newStatuses = new LinkedHashMap<>();
+
+        for (BookingApprovalRequest approval : approvals) {
+            BookingStatus newStatus = approval.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+
+            if (newStatuses.put(approval.getBookingId(), newStatus) != null) {
+                throw new BadRequestException(String.format(
+                        "Бронирование с идентификатором %d указано несколько раз", approval.getBookingId()));
+            }
+        }
+
+        Map<Long, Booking> ownedBookings = findBookingsByIdsAndItemOwnerId(newStatuses.keySet(), userId);
+        List<Booking> waitingBookings = ownedBookings.values().stream()
+                .filter(booking -> BookingStatus.WAITING.equals(booking.getStatus()))
+                .collect(Collectors.toList());
+        Set<Long> updatedIds = bookingRepository.updateWaitingBookingsStatus(waitingBookings, newStatuses);
+
+        // Часть бронирований изменена параллельно: актуальные статусы перечитываются.
+        Map<Long, Booking> currentBookings = updatedIds.size() == waitingBookings.size()
+                ? ownedBookings
+                : findBookingsByIdsAndItemOwnerId(newStatuses.keySet(), userId);
+        List<BookingApprovalView> result = new ArrayList<>(newStatuses.size());
+
+        for (Map.Entry<Long, BookingStatus> entry : newStatuses.entrySet()) {
+            Long bookingId = entry.getKey();
+            Booking booking = ownedBookings.get(bookingId);
+            Booking currentBooking = currentBookings.get(bookingId);
+
+            if (booking == null) {
+                result.add(new BookingApprovalView(bookingId, BookingApprovalOutcome.NOT_FOUND, null));
+            } else if (!BookingStatus.WAITING.equals(booking.getStatus())) {
+                result.add(new BookingApprovalView(bookingId, BookingApprovalOutcome.ALREADY_PROCESSED,
+                        booking.getStatus()));
+            } else if (updatedIds.contains(bookingId)) {
+                itemAvailabilityCache.invalidate(booking.getItem().getId());
+                result.add(new BookingApprovalView(bookingId, BookingApprovalOutcome.UPDATED, entry.getValue()));
+            } else if (currentBooking == null) {
+                result.add(new BookingApprovalView(bookingId, BookingApprovalOutcome.NOT_FOUND, null));
+            } else {
+                result.add(new BookingApprovalView(bookingId, BookingApprovalOutcome.CONFLICT,
+                        currentBooking.getStatus()));
+            }
+        }
+
+        return result;
+    }
+
+    private List<BookingView> getBookings(Specification<Booking> userSpecification, BookingState state,
+                                          Pageable pageable) {
+        Specification<Booking> specification = userSpecification
+                .and(BookingSpecifications.byState(state, LocalDateTime.now()));
+
+        return bookingRepository.findBookingViews(specification, pageable);
+    }
+
+    private Pageable getPageable(Integer from, Integer size) {
+        if (from == null || size == null) {
+            return Pageable.unpaged();
+        }
+
+        return OffsetPageRequest.of(from, size);
     }
 
     private User findUserById(Long userId) {
-        return userRepository.findById(userId).orElseThrow(() ->
+        return userLookup.findUserById(userId).orElseThrow(() ->
                 new NotFoundException(String.format("Пользователь с идентификатором %d не найден", userId)));
     }
 
@@ -147,6 +264,16 @@ public class BookingServiceImpl implements BookingService {
                 new NotFoundException(String.format("Вещь с идентификатором %d не найдена", itemId)));
     }
 
+    private Item findItemByIdForUpdate(Long itemId) {
+        return itemRepository.findItemByIdForUpdate(itemId).orElseThrow(() ->
+                new NotFoundException(String.format("Вещь с идентификатором %d не найдена", itemId)));
+    }
+
+    private Map<Long, Booking> findBookingsByIdsAndItemOwnerId(Collection<Long> bookingIds, Long ownerId) {
+        return bookingRepository.findBookingsByIdsAndItemOwnerId(bookingIds, ownerId).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+    }
+
     private Booking findBookingById(Long bookingId) {
         return bookingRepository.findById(bookingId).orElseThrow(() ->
                 new NotFoundException(String.format("Бронирование с идентификатором %d не найдено", bookingId)));
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ограничения регионов кэша второго уровня Hibernate: shareit.hibernate-cache.regions.&lt;регион&gt;.*.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit.hibernate-cache")
+public class HibernateCacheProperties {
+    /**
+     * Регионы по имени.
+     */
+    private Map<String, Region> regions = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Region {
+        /**
+         * Максимальное количество записей в регионе. Не задано - без ограничения.
+         */
+        private Long maximumSize;
+
+        /**
+         * Время жизни записи после её добавления. Не задано - без вытеснения по времени.
+         */
+        private Duration expireAfterWrite;
+    }
+}
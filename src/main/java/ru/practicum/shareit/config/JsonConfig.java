@@ -0,0 +1,22 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Настройка сериализации JSON.
+ * Модуль Blackbird заменяет рефлексивные вызовы геттеров, сеттеров и конструкторов DTO вызовами через
+ * сгенерированные лямбды (LambdaMetafactory). Формат JSON не меняется.
+ * Отключается свойством shareit.json.blackbird.enabled=false.
+ */
+@Configuration
+public class JsonConfig {
+    @Bean
+    @ConditionalOnProperty(name = "shareit.json.blackbird.enabled", havingValue = "true", matchIfMissing = true)
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.errorhandler;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -11,6 +12,7 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 import ru.practicum.shareit.exeption.BadRequestException;
 import ru.practicum.shareit.exeption.ConflictException;
 import ru.practicum.shareit.exeption.NotFoundException;
+import javax.validation.ConstraintViolationException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -33,6 +35,21 @@ public class ErrorHandler {
         return errors;
     }
 
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    @ExceptionHandler(ConstraintViolationException.class)
+    public Map<String, String> handleConstraintViolationExceptions(ConstraintViolationException exception) {
+        Map<String, String> errors = new HashMap<>();
+
+        exception.getConstraintViolations().forEach(violation -> {
+            String path = violation.getPropertyPath().toString();
+
+            log.info("Ошибка 400: {}: {}", path, violation.getMessage());
+            errors.put(path, violation.getMessage());
+        });
+
+        return errors;
+    }
+
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     @ExceptionHandler(BadRequestException.class)
     public Map<String, String> handleBadRequestExceptions(BadRequestException exception) {
@@ -63,6 +80,16 @@ public class ErrorHandler {
         return errors;
     }
 
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public Map<String, String> handleOptimisticLockingFailureExceptions(OptimisticLockingFailureException exception) {
+        log.info("Ошибка 409: {}", exception.getMessage());
+        Map<String, String> errors = new HashMap<>();
+        errors.put("error", "Объект был изменён параллельным запросом, повторите запрос");
+
+        return errors;
+    }
+
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public Map<String, String> handleIternalServerError(MethodArgumentTypeMismatchException exception) {
@@ -0,0 +1,92 @@
+package ru.practicum.shareit.item.availability;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemAvailabilityView;
+import ru.practicum.shareit.item.dto.TimeIntervalView;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Неизменяемый отсортированный набор непересекающихся занятых промежутков вещи.
+ * Выборка по периоду начинается с двоичного поиска первого промежутка, поэтому размер ответа
+ * зависит только от запрошенного периода, а не от всей истории бронирований.
+ */
+public final class BusyIntervals {
+    private final LocalDateTime[] starts;
+
+    private final LocalDateTime[] ends;
+
+    private BusyIntervals(LocalDateTime[] starts, LocalDateTime[] ends) {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * Объединение бронирований, отсортированных по дате начала, в непересекающиеся промежутки.
+     */
+    public static BusyIntervals of(List<Booking> bookingsOrderedByStart) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        List<LocalDateTime> ends = new ArrayList<>();
+
+        for (Booking booking : bookingsOrderedByStart) {
+            int last = ends.size() - 1;
+
+            if (last >= 0 && !booking.getStartDt().isAfter(ends.get(last))) {
+                if (booking.getEndDt().isAfter(ends.get(last))) {
+                    ends.set(last, booking.getEndDt());
+                }
+            } else {
+                starts.add(booking.getStartDt());
+                ends.add(booking.getEndDt());
+            }
+        }
+
+        return new BusyIntervals(starts.toArray(new LocalDateTime[0]), ends.toArray(new LocalDateTime[0]));
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public ItemAvailabilityView toItemAvailabilityView(Long itemId, LocalDateTime from, LocalDateTime to) {
+        List<TimeIntervalView> busy = new ArrayList<>();
+        List<TimeIntervalView> free = new ArrayList<>();
+        LocalDateTime freeStart = from;
+
+        for (int i = firstEndingAfter(from); i < starts.length && starts[i].isBefore(to); i++) {
+            LocalDateTime busyStart = starts[i].isBefore(from) ? from : starts[i];
+            LocalDateTime busyEnd = ends[i].isAfter(to) ? to : ends[i];
+
+            if (freeStart.isBefore(busyStart)) {
+                free.add(new TimeIntervalView(freeStart, busyStart));
+            }
+
+            busy.add(new TimeIntervalView(busyStart, busyEnd));
+            freeStart = busyEnd;
+        }
+
+        if (freeStart.isBefore(to)) {
+            free.add(new TimeIntervalView(freeStart, to));
+        }
+
+        return new ItemAvailabilityView(itemId, from, to, busy, free);
+    }
+
+    private int firstEndingAfter(LocalDateTime dateTime) {
+        int low = 0;
+        int high = ends.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (ends[middle].isAfter(dateTime)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+
+        return low;
+    }
+}
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item.availability;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Ограниченный кэш занятых промежутков по вещам с вытеснением по времени. Строится из ожидающих
+ * и подтверждённых бронирований, заканчивающихся не раньше чем за shareit.availability-cache.history
+ * до загрузки, и сбрасывается при создании или одобрении бронирования вещи.
+ * Периоды, начинающиеся раньше, читаются из базы данных без кэширования.
+ * Статистика попаданий и промахов публикуется в метриках cache.* с тегом cache=item-availability.
+ */
+@Component
+@Slf4j
+public class ItemAvailabilityCache {
+    private static final List<BookingStatus> BUSY_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+
+    private final Duration history;
+
+    private final AsyncCache<Long, Snapshot> intervals;
+
+    public ItemAvailabilityCache(BookingRepository bookingRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${shareit.availability-cache.maximum-size:10000}") long maximumSize,
+                                 @Value("${shareit.availability-cache.expire-after-write:PT10M}")
+                                 Duration expireAfterWrite,
+                                 @Value("${shareit.availability-cache.history:P1D}") Duration history) {
+        this.bookingRepository = bookingRepository;
+        this.history = history;
+        this.intervals = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, intervals.synchronous(), "item-availability");
+    }
+
+    /**
+     * Занятые промежутки вещи, заканчивающиеся после from.
+     */
+    public BusyIntervals getBusyIntervals(Long itemId, LocalDateTime from) {
+        Snapshot snapshot = getSnapshot(itemId);
+
+        if (from.isBefore(snapshot.loadedFrom)) {
+            return load(itemId, from);
+        }
+
+        return snapshot.busyIntervals;
+    }
+
+    /**
+     * Сброс кэша вещи. Внутри транзакции выполняется после её фиксации,
+     * чтобы параллельное чтение не закэшировало ещё не зафиксированное состояние.
+     */
+    public void invalidate(Long itemId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    intervals.synchronous().invalidate(itemId);
+                }
+            });
+        } else {
+            intervals.synchronous().invalidate(itemId);
+        }
+    }
+
+    /**
+     * Загрузка выполняется в вызывающем потоке вне блокировки кэша: в кэш сразу кладётся незавершённый
+     * результат, параллельные запросы той же вещи ждут его, а запросы других вещей не блокируются.
+     */
+    private Snapshot getSnapshot(Long itemId) {
+        CompletableFuture<Snapshot> created = new CompletableFuture<>();
+        CompletableFuture<Snapshot> existing = intervals.asMap().putIfAbsent(itemId, created);
+
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CancellationException e) {
+                return getSnapshot(itemId);
+            }
+        }
+
+        try {
+            LocalDateTime loadedFrom = LocalDateTime.now().minus(history);
+            created.complete(new Snapshot(loadedFrom, load(itemId, loadedFrom)));
+        } catch (RuntimeException e) {
+            // Ошибка уходит вызывающему потоку, а загрузка отменяется: Caffeine не журналирует отменённую
+            // загрузку повторно, ожидающие запросы загружают вещь сами.
+            intervals.asMap().remove(itemId, created);
+            created.cancel(false);
+            throw e;
+        }
+
+        return created.join();
+    }
+
+    private BusyIntervals load(Long itemId, LocalDateTime from) {
+        BusyIntervals busyIntervals = BusyIntervals.of(bookingRepository
+                .findBookingsByItemIdAndStatusInAndEndDtAfterOrderByStartDt(itemId, BUSY_STATUSES, from));
+        log.debug("Построены занятые промежутки вещи {} после {}: {}", itemId, from, busyIntervals.size());
+
+        return busyIntervals;
+    }
+
+    private static final class Snapshot {
+        private final LocalDateTime loadedFrom;
+
+        private final BusyIntervals busyIntervals;
+
+        private Snapshot(LocalDateTime loadedFrom, BusyIntervals busyIntervals) {
+            this.loadedFrom = loadedFrom;
+            this.busyIntervals = busyIntervals;
+        }
+    }
+}
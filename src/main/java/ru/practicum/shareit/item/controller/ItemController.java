@@ -1,8 +1,16 @@
 package ru.practicum.shareit.item.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -12,14 +20,26 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exeption.BadRequestException;
 import ru.practicum.shareit.item.dto.CommentRequest;
 import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemAvailabilityView;
+import ru.practicum.shareit.item.dto.ItemImportView;
 import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.dto.ItemCreateUpdateDto;
 import ru.practicum.shareit.item.model.Item;
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Контроллер для работы с {@link Item}.
@@ -28,39 +48,114 @@ import java.util.List;
 @RequestMapping("/items")
 @RequiredArgsConstructor
 @Slf4j
+@Validated
 public class ItemController {
     private static final String SHARER = "X-Sharer-User-Id";
+    private static final int STREAM_FLUSH_SIZE = 100;
 
     private final ItemService itemService;
 
+    private final ObjectMapper objectMapper;
+
     /**
      * Получение списка вещей пользователя.
+     * Если ETag из If-None-Match не изменился, возвращается 304 без построения списка.
      */
     @GetMapping
-    public ResponseEntity<List<ItemView>> getUserItems(@RequestHeader(SHARER) Long userId) {
+    public ResponseEntity<List<ItemView>> getUserItems(@RequestHeader(SHARER) Long userId, WebRequest webRequest) {
         log.info("Получен запрос GET /items, от пользователя {}.", userId);
 
+        if (webRequest.checkNotModified(itemService.getUserItemsETag(userId))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         return ResponseEntity.ok(itemService.getUserItems(userId));
     }
 
     /**
      * Получение вещи по идентификатору (itemId).
+     * Если задан commentsSize, возвращается только страница отзывов начиная с commentsFrom.
+     * commentsFrom без commentsSize не допускается.
+     * Если ETag из If-None-Match не изменился, возвращается 304 без построения вещи.
      */
     @GetMapping("/{itemId}")
-    public ResponseEntity<ItemView> getItemById(@RequestHeader(SHARER) Long userId, @PathVariable Long itemId) {
+    public ResponseEntity<ItemView> getItemById(@RequestHeader(SHARER) Long userId, @PathVariable Long itemId,
+                                                @RequestParam(required = false) @Min(0) Integer commentsFrom,
+                                                @RequestParam(required = false) @Min(1) @Max(100)
+                                                Integer commentsSize,
+                                                WebRequest webRequest) {
         log.info("Получен запрос GET /items/{}, от пользователя {}.", itemId, userId);
 
-        return ResponseEntity.ok(itemService.getItemById(userId, itemId));
+        if (commentsFrom != null && commentsSize == null) {
+            throw new BadRequestException("Параметр commentsFrom задаётся только вместе с commentsSize");
+        }
+
+        if (webRequest.checkNotModified(itemService.getItemETag(userId, itemId))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        return ResponseEntity.ok(itemService.getItemById(userId, itemId, commentsFrom, commentsSize));
     }
 
     /**
-     * Получение списка вещей по ключевому слову (text).
+     * Получение занятых и свободных промежутков вещи в периоде [from, to).
+     */
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<ItemAvailabilityView> getItemAvailability(
+            @RequestHeader(SHARER) Long userId,
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получен запрос GET /items/{}/availability, от пользователя {}.", itemId, userId);
+
+        return ResponseEntity.ok(itemService.getItemAvailability(itemId, from, to));
+    }
+
+    /**
+     * Получение списка вещей по ключевому слову (text), упорядоченного по релевантности.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<ItemView>> searchItem(@RequestHeader(SHARER) Long userId, @RequestParam String text) {
+    public ResponseEntity<List<ItemView>> searchItem(@RequestHeader(SHARER) Long userId, @RequestParam String text,
+                                                     @RequestParam(required = false) @Min(0) Integer from,
+                                                     @RequestParam(required = false) @Min(1) @Max(20) Integer size) {
         log.info("Получен запрос GET /items/search, от пользователя {}.", userId);
 
-        return ResponseEntity.ok(itemService.searchItems(text));
+        return ResponseEntity.ok(itemService.searchItems(text, from, size));
+    }
+
+    /**
+     * Потоковое получение всех вещей по ключевому слову (text) в формате NDJSON: по одной вещи в строке.
+     * Вещи отправляются по мере чтения из базы данных и не накапливаются в памяти.
+     */
+    @GetMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSearchItem(@RequestHeader(SHARER) Long userId,
+                                                                  @RequestParam String text) {
+        log.info("Получен запрос GET /items/search/stream, от пользователя {}.", userId);
+
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writerFor(ItemView.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                AtomicInteger written = new AtomicInteger();
+
+                itemService.streamSearchItems(text, itemView -> {
+                    try {
+                        writer.write(itemView);
+
+                        if (written.incrementAndGet() % STREAM_FLUSH_SIZE == 0) {
+                            writer.flush();
+                        }
+                    } catch (IOException exception) {
+                        throw new UncheckedIOException(exception);
+                    }
+                });
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
@@ -74,6 +169,21 @@ public class ItemController {
         return ResponseEntity.ok(itemService.create(userId, itemCreateUpdateDto));
     }
 
+    /**
+     * Импорт вещей из JSON-массива или NDJSON.
+     * Тело запроса читается потоково по одной вещи, в ответе - итог импорта и строки с ошибками.
+     */
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ItemImportView> importItems(@RequestHeader(SHARER) Long userId,
+                                                      InputStream body) throws IOException {
+        log.info("Получен запрос POST /items/bulk, от пользователя {}.", userId);
+
+        try (MappingIterator<ItemCreateUpdateDto> rows = objectMapper.readerFor(ItemCreateUpdateDto.class)
+                .readValues(body)) {
+            return ResponseEntity.ok(itemService.importItems(userId, rows));
+        }
+    }
+
     /**
      * Добавление отзыва.
      */
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import ru.practicum.shareit.item.model.Item;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO для ответа, занятость {@link Item} в периоде [from, to).
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class ItemAvailabilityView {
+    /**
+     * Идентификатор вещи.
+     */
+    private Long itemId;
+
+    /**
+     * Начало периода.
+     */
+    private LocalDateTime from;
+
+    /**
+     * Окончание периода.
+     */
+    private LocalDateTime to;
+
+    /**
+     * Объединённые промежутки, занятые ожидающими и подтверждёнными бронированиями.
+     */
+    private List<TimeIntervalView> busy = new ArrayList<>();
+
+    /**
+     * Свободные промежутки между занятыми.
+     */
+    private List<TimeIntervalView> free = new ArrayList<>();
+}
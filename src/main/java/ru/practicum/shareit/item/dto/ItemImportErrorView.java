@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * DTO для ответа, строка импорта вещей, которая не была добавлена.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class ItemImportErrorView {
+    /**
+     * Номер строки во входных данных, начиная с 1.
+     */
+    private Long row;
+
+    /**
+     * Причина ошибки.
+     */
+    private String message;
+}
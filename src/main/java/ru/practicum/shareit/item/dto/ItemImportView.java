@@ -0,0 +1,51 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO для ответа, итог импорта вещей.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class ItemImportView {
+    public static final int MAX_ERRORS = 100;
+
+    /**
+     * Количество прочитанных строк.
+     */
+    private long total;
+
+    /**
+     * Количество добавленных вещей.
+     */
+    private long created;
+
+    /**
+     * Количество строк с ошибками.
+     */
+    private long failed;
+
+    /**
+     * Строки с ошибками, не более {@link #MAX_ERRORS}.
+     */
+    private List<ItemImportErrorView> errors = new ArrayList<>();
+
+    public void addError(long row, String message) {
+        failed++;
+
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new ItemImportErrorView(row, message));
+        }
+    }
+}
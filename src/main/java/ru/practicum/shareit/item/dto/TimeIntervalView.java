@@ -0,0 +1,30 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import java.time.LocalDateTime;
+
+/**
+ * DTO для ответа, промежуток времени [start, end).
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode
+public class TimeIntervalView {
+    /**
+     * Начало промежутка.
+     */
+    private LocalDateTime start;
+
+    /**
+     * Окончание промежутка.
+     */
+    private LocalDateTime end;
+}
@@ -4,6 +4,8 @@ import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
+import java.util.List;
+import java.util.stream.Collectors;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class CommentMapper {
@@ -14,4 +16,10 @@ public class CommentMapper {
                 source.getUser() != null ? source.getUser().getName() : null,
                 source.getCreated());
     }
+
+    public static List<CommentView> toCommentView(List<Comment> source) {
+        return source.stream()
+                .map(CommentMapper::toCommentView)
+                .collect(Collectors.toList());
+    }
 }
@@ -26,7 +26,7 @@ public class ItemMapper {
 
     public static Item fromItemCreateUpdateDto(ItemCreateUpdateDto source) {
         return new Item(null, source.getName(), source.getDescription(),
-                source.getAvailable(), null, null);
+                source.getAvailable(), null, null, null);
     }
 
     public static ItemResponseView toItemResponseView(Item source) {
@@ -1,8 +1,11 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.shareitutils.etag.ContentStamp;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -11,8 +14,31 @@ import java.util.List;
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Query("select c " +
             "from Comment as c " +
-            "inner join c.item as i " +
+            "join fetch c.user " +
             "where " +
-            "i.id in ?1")
+            "c.item.id in ?1 " +
+            "order by c.created, c.id")
     List<Comment> findCommentsByItemIds(List<Long> itemIds);
+
+    @Query("select c " +
+            "from Comment as c " +
+            "join fetch c.user " +
+            "where " +
+            "c.item.id = ?1 " +
+            "order by c.created, c.id")
+    List<Comment> findCommentsByItemIdPageable(Long itemId, Pageable pageable);
+
+    /**
+     * Сводка об отзывах вещей для ETag: текст и дата отзыва не изменяются, меняться может только имя автора,
+     * поэтому в счётчик изменений входит сумма версий авторов. Отзывы только добавляются и удаляются
+     * вместе с вещью или автором, так что любое изменение меняет количество, наибольший идентификатор
+     * или сумму версий.
+     */
+    @Query("select new ru.practicum.shareit.shareitutils.etag.ContentStamp(" +
+            "count(c), coalesce(max(c.id), 0L), coalesce(sum(u.version), 0L)) " +
+            "from Comment as c " +
+            "inner join c.user as u " +
+            "where " +
+            "c.item.id in ?1")
+    ContentStamp findCommentStampByItemIds(Collection<Long> itemIds);
 }
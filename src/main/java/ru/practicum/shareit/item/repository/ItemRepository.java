@@ -1,21 +1,91 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.shareitutils.etag.ContentStamp;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_MODE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 /**
  * Репозиторий для работы с {@link Item}.
  */
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    /**
+     * Вещи владельца. Результат хранится в кэше запросов и сбрасывается при любом изменении таблицы вещей.
+     */
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<Item> findItemsByOwnerIdOrderById(Long userId);
 
+    /**
+     * Вещь с блокировкой строки до конца транзакции (select ... for update).
+     * Сериализует конкурентные бронирования одной вещи.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i " +
+            "from Item as i " +
+            "where " +
+            "i.id = ?1")
+    Optional<Item> findItemByIdForUpdate(Long itemId);
+
+    List<Item> findItemsByAvailableTrueAndIdGreaterThanOrderById(Long id, Pageable pageable);
+
+    /**
+     * Сводка о вещах, добавленных по запросу, для ETag ответа на запрос.
+     */
+    @Query("select new ru.practicum.shareit.shareitutils.etag.ContentStamp(" +
+            "count(i), coalesce(max(i.id), 0L), coalesce(sum(i.version), 0L)) " +
+            "from Item as i " +
+            "where " +
+            "i.request.id = ?1")
+    ContentStamp findItemStampByRequestId(Long requestId);
+
+    /**
+     * Поиск доступных вещей по подстроке в названии или описании.
+     * Выше в выдаче вещи, у которых совпадает название, затем начало названия, затем подстрока в названии.
+     */
+    @Query("select i " +
+            "from Item as i " +
+            "where " +
+            "i.available = true " +
+            "and (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "order by " +
+            "case " +
+            "when upper(i.name) = upper(?1) then 0 " +
+            "when upper(i.name) like upper(concat(?1, '%')) then 1 " +
+            "when upper(i.name) like upper(concat('%', ?1, '%')) then 2 " +
+            "else 3 " +
+            "end, i.id")
+    List<Item> findItemBySearchText(String searchText, Pageable pageable);
+
+    /**
+     * Потоковый поиск доступных вещей по подстроке: строки читаются из курсора порциями по fetch size.
+     * Вызывать внутри транзакции и закрывать поток после чтения. Прочитанные вещи не попадают
+     * в кэш второго уровня, чтобы полный обход не вытеснял из него часто запрашиваемые вещи.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true"),
+            @QueryHint(name = HINT_CACHE_MODE, value = "IGNORE")
+    })
     @Query("select i " +
             "from Item as i " +
             "where " +
             "i.available = true " +
             "and (upper(i.name) like upper(concat('%', ?1, '%')) " +
-            "or upper(i.description) like upper(concat('%', ?1, '%')))")
-    List<Item> findItemBySearchText(String searchText);
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "order by i.id")
+    Stream<Item> streamItemBySearchText(String searchText);
 }
@@ -0,0 +1,524 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Инвертированный индекс доступных вещей по триграммам названия и описания.
+ * Включается свойством shareit.search.index.enabled, строится при старте приложения
+ * и обновляется после фиксации транзакций, создающих и изменяющих вещи или удаляющих их владельцев,
+ * после чего поиск не обращается к базе данных.
+ */
+@Component
+@Slf4j
+public class ItemSearchIndex {
+    private static final int GRAM_SIZE = 3;
+
+    private static final int REBUILD_BATCH_SIZE = 10_000;
+
+    private static final int STREAM_BATCH_SIZE = 500;
+
+    private final ItemRepository itemRepository;
+
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Index index = new Index();
+
+    /**
+     * Изменения, применённые во время построения индекса. Повторяются на новом индексе перед заменой,
+     * чтобы не потерять вещи, изменённые после того, как построение их прочитало.
+     */
+    private List<Consumer<Index>> pendingChanges;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.index.enabled:false}") boolean enabled) {
+        this.itemRepository = itemRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Полное построение индекса по всем доступным вещам.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        Index newIndex = new Index();
+        long lastId = 0;
+        List<Item> items;
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            do {
+                items = itemRepository.findItemsByAvailableTrueAndIdGreaterThanOrderById(lastId,
+                        PageRequest.of(0, REBUILD_BATCH_SIZE));
+
+                for (Item item : items) {
+                    newIndex.update(item.getId(), version(item), Document.of(item));
+                    lastId = item.getId();
+                }
+            } while (items.size() == REBUILD_BATCH_SIZE);
+
+            newIndex.postings.forEachValue(PostingList::trimToSize);
+            newIndex.ids.trimToSize();
+
+            lock.writeLock().lock();
+            try {
+                pendingChanges.forEach(change -> change.accept(newIndex));
+                index = newIndex;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        log.info("Индекс поиска вещей построен: вещей {}, триграмм {}, за {} мс", newIndex.documents.size(),
+                newIndex.postings.size(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Добавление или обновление вещи в индексе. Недоступная вещь из индекса удаляется.
+     * Внутри транзакции выполняется после её фиксации, чтобы поиск не нашёл незафиксированную вещь.
+     * Документ строится после фиксации, когда Hibernate уже увеличил версию вещи: обратные вызовы
+     * параллельных транзакций могут выполниться в любом порядке, и изменение с меньшей версией, чем
+     * у проиндексированной вещи, пропускается.
+     */
+    public void put(Item item) {
+        if (!enabled || item.getId() == null) {
+            return;
+        }
+
+        applyAfterCommit(() -> {
+            long itemId = item.getId();
+            long version = version(item);
+            Document document = Boolean.TRUE.equals(item.getAvailable()) ? Document.of(item) : null;
+
+            return target -> target.update(itemId, version, document);
+        });
+    }
+
+    /**
+     * Удаление вещей владельца, которые база данных удаляет каскадно вместе с пользователем.
+     * Внутри транзакции выполняется после её фиксации.
+     */
+    public void removeByOwnerId(Long ownerId) {
+        if (!enabled) {
+            return;
+        }
+
+        applyAfterCommit(() -> target -> target.removeByOwnerId(ownerId));
+    }
+
+    /**
+     * Поиск вещей по подстроке в названии или описании с тем же ранжированием, что и запрос к базе данных.
+     */
+    public List<ItemView> search(String searchText, Integer from, Integer size) {
+        String query = fold(searchText);
+        List<Document> found = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            for (long id : index.findCandidates(query)) {
+                Document document = index.documents.get(id);
+
+                if (document != null && document.matches(query)) {
+                    found.add(document);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        long offset = from == null ? 0 : from;
+        long limit = size == null ? Long.MAX_VALUE : size;
+
+        return found.stream()
+                .sorted(Comparator.comparingInt((Document document) -> document.rank(query))
+                        .thenComparingLong(document -> document.id))
+                .skip(offset)
+                .limit(limit)
+                .map(Document::toItemView)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Потоковый поиск вещей по подстроке в названии или описании в порядке идентификаторов, как при потоковом
+     * запросе к базе данных. Совпадения собираются порциями: блокировка чтения удерживается только на время
+     * сбора порции, а не на время передачи вещей потребителю, и в памяти одновременно находится не больше
+     * одной порции, сколько бы вещей ни нашлось.
+     */
+    public void stream(String searchText, Consumer<ItemView> consumer) {
+        String query = fold(searchText);
+        List<Document> batch = new ArrayList<>(STREAM_BATCH_SIZE);
+        long lastId = Long.MIN_VALUE;
+
+        do {
+            batch.clear();
+
+            lock.readLock().lock();
+            try {
+                index.collectMatches(query, lastId, batch);
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            for (Document document : batch) {
+                consumer.accept(document.toItemView());
+                lastId = document.id;
+            }
+        } while (batch.size() == STREAM_BATCH_SIZE);
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return index.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void applyAfterCommit(Supplier<Consumer<Index>> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change.get());
+                }
+            });
+        } else {
+            apply(change.get());
+        }
+    }
+
+    private void apply(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static long version(Item item) {
+        return item.getVersion() != null ? item.getVersion() : 0L;
+    }
+
+    /**
+     * Приведение к верхнему регистру посимвольно, как при сравнении в {@link String#regionMatches(boolean, int,
+     * String, int, int)}: длина строки не меняется, поэтому триграммы и сравнение текста согласованы.
+     */
+    private static String fold(String text) {
+        char[] chars = text.toCharArray();
+
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toUpperCase(chars[i]);
+        }
+
+        return new String(chars);
+    }
+
+    private static long[] grams(String text) {
+        LongStream.Builder grams = LongStream.builder();
+
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(((long) Character.toUpperCase(text.charAt(i)) << 32)
+                    | ((long) Character.toUpperCase(text.charAt(i + 1)) << 16)
+                    | Character.toUpperCase(text.charAt(i + 2)));
+        }
+
+        return grams.build().toArray();
+    }
+
+    private static boolean containsIgnoreCase(String text, String query) {
+        for (int i = 0; i + query.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, query, 0, query.length())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Документы и списки вещей по триграммам. Заменяется целиком при построении индекса.
+     */
+    private static final class Index {
+        private final LongObjectMap<PostingList> postings = new LongObjectMap<>();
+
+        private final LongObjectMap<Document> documents = new LongObjectMap<>();
+
+        /**
+         * Идентификаторы всех документов по возрастанию: для потокового поиска по запросу короче триграммы.
+         */
+        private final PostingList ids = new PostingList();
+
+        /**
+         * Версии вещей, удалённых из индекса после построения: опоздавшее изменение с меньшей версией
+         * не должно вернуть вещь обратно. Вещам удалённого владельца присваивается наибольшая версия.
+         */
+        private final LongObjectMap<Long> removedVersions = new LongObjectMap<>();
+
+        /**
+         * Замена документа вещи, если версия не меньше проиндексированной. Документ null удаляет вещь.
+         */
+        private void update(long itemId, long version, Document document) {
+            if (version < version(itemId)) {
+                return;
+            }
+
+            remove(itemId);
+
+            if (document == null) {
+                removedVersions.put(itemId, version);
+                return;
+            }
+
+            removedVersions.remove(itemId);
+            documents.put(itemId, document);
+            ids.add(itemId);
+
+            for (long gram : document.grams()) {
+                postings.computeIfAbsent(gram, key -> new PostingList()).add(itemId);
+            }
+        }
+
+        private long version(long itemId) {
+            Document document = documents.get(itemId);
+
+            if (document != null) {
+                return document.version;
+            }
+
+            Long removedVersion = removedVersions.get(itemId);
+
+            return removedVersion != null ? removedVersion : Long.MIN_VALUE;
+        }
+
+        private void remove(long itemId) {
+            Document document = documents.remove(itemId);
+
+            if (document == null) {
+                return;
+            }
+
+            ids.remove(itemId);
+
+            for (long gram : document.grams()) {
+                PostingList list = postings.get(gram);
+
+                if (list != null) {
+                    list.remove(document.id);
+
+                    if (list.isEmpty()) {
+                        postings.remove(gram);
+                    }
+                }
+            }
+        }
+
+        private void removeByOwnerId(long ownerId) {
+            LongStream.Builder itemIds = LongStream.builder();
+            documents.forEachValue(document -> {
+                if (document.ownerId == ownerId) {
+                    itemIds.add(document.id);
+                }
+            });
+
+            itemIds.build().forEach(itemId -> update(itemId, Long.MAX_VALUE, null));
+        }
+
+        /**
+         * Следующие за afterId совпадения по возрастанию идентификатора, не больше STREAM_BATCH_SIZE.
+         * Обходится самый короткий список триграмм запроса, остальные только проверяются.
+         */
+        private void collectMatches(String query, long afterId, List<Document> batch) {
+            List<PostingList> lists = new ArrayList<>();
+
+            if (query.length() < GRAM_SIZE) {
+                lists.add(ids);
+            } else {
+                for (long gram : grams(query)) {
+                    PostingList list = postings.get(gram);
+
+                    if (list == null) {
+                        return;
+                    }
+
+                    lists.add(list);
+                }
+
+                lists.sort(Comparator.comparingInt(PostingList::size));
+            }
+
+            PostingList shortest = lists.get(0);
+            int position = shortest.positionAfter(afterId);
+
+            while (position < shortest.size() && batch.size() < STREAM_BATCH_SIZE) {
+                long id = shortest.get(position++);
+
+                if (containsAll(lists, id)) {
+                    Document document = documents.get(id);
+
+                    if (document != null && document.matches(query)) {
+                        batch.add(document);
+                    }
+                }
+            }
+        }
+
+        private static boolean containsAll(List<PostingList> lists, long id) {
+            for (int i = 1; i < lists.size(); i++) {
+                if (!lists.get(i).contains(id)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private long[] findCandidates(String query) {
+            if (query.length() < GRAM_SIZE) {
+                return documents.keys();
+            }
+
+            List<PostingList> lists = new ArrayList<>();
+
+            for (long gram : grams(query)) {
+                PostingList list = postings.get(gram);
+
+                if (list == null) {
+                    return new long[0];
+                }
+
+                lists.add(list);
+            }
+
+            lists.sort(Comparator.comparingInt(PostingList::size));
+            long[] candidates = lists.get(0).toArray();
+            int count = candidates.length;
+
+            for (int i = 1; i < lists.size() && count > 0; i++) {
+                PostingList list = lists.get(i);
+                int retained = 0;
+
+                for (int j = 0; j < count; j++) {
+                    if (list.contains(candidates[j])) {
+                        candidates[retained++] = candidates[j];
+                    }
+                }
+
+                count = retained;
+            }
+
+            long[] result = new long[count];
+            System.arraycopy(candidates, 0, result, 0, count);
+
+            return result;
+        }
+    }
+
+    /**
+     * Проиндексированная вещь: только поля, необходимые для поиска и ответа.
+     * Текст хранится в одном экземпляре, регистр не учитывается при сравнении.
+     */
+    private static final class Document {
+        private final long id;
+
+        private final long ownerId;
+
+        private final long version;
+
+        private final String name;
+
+        private final String description;
+
+        private final Long requestId;
+
+        private Document(long id, long ownerId, long version, String name, String description, Long requestId) {
+            this.id = id;
+            this.ownerId = ownerId;
+            this.version = version;
+            this.name = name;
+            this.description = description;
+            this.requestId = requestId;
+        }
+
+        private static Document of(Item item) {
+            return new Document(item.getId(), item.getOwner() != null ? item.getOwner().getId() : 0L,
+                    ItemSearchIndex.version(item), item.getName(), item.getDescription(),
+                    item.getRequest() != null ? item.getRequest().getId() : null);
+        }
+
+        private long[] grams() {
+            return LongStream.concat(LongStream.of(ItemSearchIndex.grams(name)),
+                    LongStream.of(ItemSearchIndex.grams(description))).distinct().toArray();
+        }
+
+        /**
+         * Совпадение с запросом, приведённым {@link ItemSearchIndex#fold}.
+         */
+        private boolean matches(String query) {
+            return containsIgnoreCase(name, query) || containsIgnoreCase(description, query);
+        }
+
+        private int rank(String query) {
+            if (name.length() == query.length() && name.regionMatches(true, 0, query, 0, query.length())) {
+                return 0;
+            } else if (name.regionMatches(true, 0, query, 0, query.length())) {
+                return 1;
+            } else if (containsIgnoreCase(name, query)) {
+                return 2;
+            }
+
+            return 3;
+        }
+
+        private ItemView toItemView() {
+            return new ItemView(id, name, description, true, null, null, new ArrayList<>(), requestId);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Хэш-таблица с ключами примитивного типа long и открытой адресацией.
+ * В отличие от HashMap не создаёт объекты Long и узлы на каждую запись.
+ * Пустая ячейка обозначается значением null, поэтому null в качестве значения не допускается.
+ */
+class LongObjectMap<V> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+
+    private Object[] values = new Object[INITIAL_CAPACITY];
+
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        int slot = find(key);
+
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    V computeIfAbsent(long key, LongFunction<V> factory) {
+        V value = get(key);
+
+        if (value == null) {
+            value = factory.apply(key);
+            put(key, value);
+        }
+
+        return value;
+    }
+
+    void put(long key, V value) {
+        int mask = values.length - 1;
+        int slot = slot(key, mask);
+
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        values[slot] = value;
+
+        if (++size * 4 > values.length * 3) {
+            resize();
+        }
+    }
+
+    /**
+     * Удаление со сдвигом следующих записей цепочки на освободившееся место, без меток удаления.
+     */
+    @SuppressWarnings("unchecked")
+    V remove(long key) {
+        int gap = find(key);
+
+        if (gap < 0) {
+            return null;
+        }
+
+        V removed = (V) values[gap];
+        int mask = values.length - 1;
+        int next = gap;
+
+        while (true) {
+            next = (next + 1) & mask;
+
+            if (values[next] == null) {
+                break;
+            }
+
+            int home = slot(keys[next], mask);
+            boolean movable = next > gap ? home <= gap || home > next : home <= gap && home > next;
+
+            if (movable) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+
+        values[gap] = null;
+        size--;
+
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] keys() {
+        long[] result = new long[size];
+        int count = 0;
+
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                result[count++] = keys[i];
+            }
+        }
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    void forEachValue(Consumer<? super V> consumer) {
+        for (Object value : values) {
+            if (value != null) {
+                consumer.accept((V) value);
+            }
+        }
+    }
+
+    private int find(long key) {
+        int mask = values.length - 1;
+        int slot = slot(key, mask);
+
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return -1;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldValues.length * 2];
+        int mask = values.length - 1;
+
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i], mask);
+
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        int hash = Long.hashCode(key) * 0x9E3779B9;
+
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
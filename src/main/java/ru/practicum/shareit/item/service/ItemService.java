@@ -2,10 +2,15 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentRequest;
 import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemAvailabilityView;
 import ru.practicum.shareit.item.dto.ItemCreateUpdateDto;
+import ru.practicum.shareit.item.dto.ItemImportView;
 import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.model.Item;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Сервис для работы с {@link Item}.
@@ -13,12 +18,32 @@ import java.util.List;
 public interface ItemService {
     List<ItemView> getUserItems(Long userId);
 
-    ItemView getItemById(Long userId, Long itemId);
+    ItemView getItemById(Long userId, Long itemId, Integer commentsFrom, Integer commentsSize);
 
-    List<ItemView> searchItems(String searchText);
+    /**
+     * ETag списка вещей пользователя, вычисляется без построения {@link ItemView}.
+     */
+    String getUserItemsETag(Long userId);
+
+    /**
+     * ETag вещи, вычисляется без построения {@link ItemView}.
+     */
+    String getItemETag(Long userId, Long itemId);
+
+    List<ItemView> searchItems(String searchText, Integer from, Integer size);
+
+    void streamSearchItems(String searchText, Consumer<ItemView> consumer);
+
+    ItemAvailabilityView getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 
     ItemView create(Long userId, ItemCreateUpdateDto itemCreateUpdateDto);
 
+    /**
+     * Импорт вещей пользователя из последовательности строк, прочитанных из тела запроса.
+     * Вещи добавляются порциями в отдельных транзакциях, строки с ошибками пропускаются.
+     */
+    ItemImportView importItems(Long userId, Iterator<ItemCreateUpdateDto> rows);
+
     ItemView update(Long userId, Long itemId, ItemCreateUpdateDto itemCreateUpdateDto);
 
     CommentView createComment(Long userId, Long itemId, CommentRequest commentRequest);
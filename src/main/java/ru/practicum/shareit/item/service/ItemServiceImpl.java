@@ -1,11 +1,18 @@
 package ru.practicum.shareit.item.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
@@ -13,8 +20,11 @@ import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exeption.BadRequestException;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentRequest;
+import ru.practicum.shareit.item.availability.ItemAvailabilityCache;
 import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemAvailabilityView;
 import ru.practicum.shareit.item.dto.ItemCreateUpdateDto;
+import ru.practicum.shareit.item.dto.ItemImportView;
 import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -22,16 +32,30 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.shareitutils.etag.ContentStamp;
+import ru.practicum.shareit.shareitutils.etag.ETags;
+import ru.practicum.shareit.shareitutils.pageable.OffsetPageRequest;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserLookup;
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Сервис для работы с {@link Item}.
@@ -40,16 +64,30 @@ import java.util.stream.Collectors;
 @Slf4j
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
+    private static final Duration MAX_AVAILABILITY_PERIOD = Duration.ofDays(366);
+
+    private static final int IMPORT_CHUNK_SIZE = 500;
+
     private final ItemRepository itemRepository;
 
     private final BookingRepository bookingRepository;
 
-    private final UserRepository userRepository;
+    private final UserLookup userLookup;
 
     private final CommentRepository commentRepository;
 
     private final ItemRequestRepository itemRequestRepository;
 
+    private final ItemSearchIndex itemSearchIndex;
+
+    private final EntityManager entityManager;
+
+    private final ItemAvailabilityCache itemAvailabilityCache;
+
+    private final PlatformTransactionManager transactionManager;
+
+    private final Validator validator;
+
     @Override
     public List<ItemView> getUserItems(Long userId) {
         log.info("Запрошен список вещей пользователя с id = {}", userId);
@@ -65,7 +103,7 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public ItemView getItemById(Long userId, Long itemId) {
+    public ItemView getItemById(Long userId, Long itemId, Integer commentsFrom, Integer commentsSize) {
         log.info("Запрошена вещь с itemId = {}", itemId);
 
         Item item = findItemById(itemId);
@@ -77,27 +115,100 @@ public class ItemServiceImpl implements ItemService {
             addBookingInfoToItemViewList(itemViews);
         }
 
-        addCommentsToItemViewList(itemViews);
+        if (commentsSize == null) {
+            addCommentsToItemViewList(itemViews);
+        } else {
+            itemView.setComments(CommentMapper.toCommentView(commentRepository.findCommentsByItemIdPageable(
+                    itemId, OffsetPageRequest.of(commentsFrom == null ? 0 : commentsFrom, commentsSize))));
+        }
+
+        return itemView;
+    }
+
+    @Override
+    public String getUserItemsETag(Long userId) {
+        User user = findUserById(userId);
+
+        return getItemsETag(itemRepository.findItemsByOwnerIdOrderById(user.getId()), true);
+    }
+
+    @Override
+    public String getItemETag(Long userId, Long itemId) {
+        Item item = findItemById(itemId);
 
-        return itemViews.get(0);
+        return getItemsETag(List.of(item), Objects.equals(userId, item.getOwner().getId()));
     }
 
     @Override
-    public List<ItemView> searchItems(String searchText) {
+    public List<ItemView> searchItems(String searchText, Integer from, Integer size) {
         log.info("Запрошен поиск вещей по тексту = \"{}\"", searchText);
 
         if (searchText.isBlank()) {
             return new ArrayList<>();
         }
 
+        if (itemSearchIndex.isEnabled()) {
+            return itemSearchIndex.search(searchText, from, size);
+        }
+
+        Pageable pageable = size == null ? Pageable.unpaged() : OffsetPageRequest.of(from == null ? 0 : from, size);
+
         return ItemMapper.toItemView(
-                itemRepository.findItemBySearchText(searchText));
+                itemRepository.findItemBySearchText(searchText, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamSearchItems(String searchText, Consumer<ItemView> consumer) {
+        log.info("Запрошен потоковый поиск вещей по тексту = \"{}\"", searchText);
+
+        if (searchText.isBlank()) {
+            return;
+        }
+
+        if (itemSearchIndex.isEnabled()) {
+            itemSearchIndex.stream(searchText, consumer);
+            return;
+        }
+
+        // Режим кэша из подсказки запроса Hibernate возвращает сессии сразу после открытия курсора,
+        // а вещи из потока загружаются позже, поэтому кэш второго уровня отключается на всю сессию.
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+
+        try (Stream<Item> items = itemRepository.streamItemBySearchText(searchText)) {
+            items.forEach(item -> {
+                consumer.accept(ItemMapper.toItemView(item));
+                entityManager.detach(item);
+            });
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+    }
+
+    @Override
+    public ItemAvailabilityView getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("Запрошена занятость вещи с itemId = {} в периоде с {} по {}", itemId, from, to);
+
+        if (!from.isBefore(to)) {
+            throw new BadRequestException("Начало периода должно быть раньше его окончания");
+        }
+
+        if (from.plus(MAX_AVAILABILITY_PERIOD).isBefore(to)) {
+            throw new BadRequestException(
+                    String.format("Период не должен превышать %d дней", MAX_AVAILABILITY_PERIOD.toDays()));
+        }
+
+        findItemById(itemId);
+
+        return itemAvailabilityCache.getBusyIntervals(itemId, from).toItemAvailabilityView(itemId, from, to);
     }
 
     @Override
     @Transactional
     public ItemView create(Long userId, ItemCreateUpdateDto itemCreateUpdateDto) {
-        log.info("Попытка добавить вещь {}", itemCreateUpdateDto);
+        log.debug("Попытка добавить вещь {}", itemCreateUpdateDto);
 
         User user = findUserById(userId);
         Item item = ItemMapper.fromItemCreateUpdateDto(itemCreateUpdateDto);
@@ -109,13 +220,76 @@ public class ItemServiceImpl implements ItemService {
 
         item.setOwner(user);
 
-        return ItemMapper.toItemView(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemSearchIndex.put(savedItem);
+
+        return ItemMapper.toItemView(savedItem);
+    }
+
+    @Override
+    public ItemImportView importItems(Long userId, Iterator<ItemCreateUpdateDto> rows) {
+        log.info("Импорт вещей пользователем с идентификатором {}", userId);
+
+        User user = findUserById(userId);
+        ItemImportView importView = new ItemImportView();
+        Map<Long, Boolean> existingItemRequests = new HashMap<>();
+        List<ImportRow> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        long row = 0;
+
+        while (true) {
+            ItemCreateUpdateDto itemCreateUpdateDto;
+
+            try {
+                if (!rows.hasNext()) {
+                    break;
+                }
+
+                row++;
+                itemCreateUpdateDto = rows.next();
+            } catch (RuntimeJsonMappingException e) {
+                importView.addError(row, e.getMessage());
+                continue;
+            } catch (RuntimeException e) {
+                if (!(e.getCause() instanceof JsonProcessingException)) {
+                    throw e;
+                }
+
+                // После синтаксической ошибки продолжить чтение невозможно.
+                importView.addError(row + 1, "Некорректный JSON: " + e.getCause().getMessage());
+                break;
+            }
+
+            Set<ConstraintViolation<ItemCreateUpdateDto>> violations = validator.validate(itemCreateUpdateDto);
+
+            if (!violations.isEmpty()) {
+                importView.addError(row, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+                continue;
+            }
+
+            chunk.add(new ImportRow(row, itemCreateUpdateDto));
+
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                importChunk(user, chunk, existingItemRequests, importView);
+                chunk.clear();
+            }
+        }
+
+        importChunk(user, chunk, existingItemRequests, importView);
+        importView.setTotal(row);
+
+        log.info("Импорт вещей пользователем с идентификатором {} завершён: строк {}, добавлено {}, ошибок {}",
+                userId, importView.getTotal(), importView.getCreated(), importView.getFailed());
+
+        return importView;
     }
 
     @Override
     @Transactional
     public ItemView update(Long userId, Long itemId, ItemCreateUpdateDto itemCreateUpdateDto) {
-        log.info("Попытка обновить вещь {}", itemCreateUpdateDto);
+        log.debug("Попытка обновить вещь {}", itemCreateUpdateDto);
 
         Item itemForUpdate = findItemById(itemId);
         User user = findUserById(userId);
@@ -141,13 +315,16 @@ public class ItemServiceImpl implements ItemService {
             itemForUpdate.setAvailable(newAvailable);
         }
 
-        return ItemMapper.toItemView(itemRepository.save(itemForUpdate));
+        Item savedItem = itemRepository.save(itemForUpdate);
+        itemSearchIndex.put(savedItem);
+
+        return ItemMapper.toItemView(savedItem);
     }
 
     @Override
     @Transactional
     public CommentView createComment(Long userId, Long itemId, CommentRequest commentRequest) {
-        log.info("Добавление отзыва {} на вещь с идентификатором {}", commentRequest, itemId);
+        log.debug("Добавление отзыва {} на вещь с идентификатором {}", commentRequest, itemId);
 
         LocalDateTime dateTime = LocalDateTime.now();
         User user = findUserById(userId);
@@ -168,13 +345,84 @@ public class ItemServiceImpl implements ItemService {
         return CommentMapper.toCommentView(commentRepository.save(comment));
     }
 
+    /**
+     * Добавление порции вещей одной транзакцией с пакетной вставкой.
+     * Запросы вещей проверяются одним запросом на порцию, результат проверки запоминается до конца импорта.
+     */
+    private void importChunk(User user, List<ImportRow> chunk, Map<Long, Boolean> existingItemRequests,
+                             ItemImportView importView) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        Set<Long> unknownItemRequestIds = chunk.stream()
+                .map(importRow -> importRow.itemCreateUpdateDto.getRequestId())
+                .filter(requestId -> requestId != null && !existingItemRequests.containsKey(requestId))
+                .collect(Collectors.toSet());
+
+        if (!unknownItemRequestIds.isEmpty()) {
+            unknownItemRequestIds.forEach(requestId -> existingItemRequests.put(requestId, false));
+            itemRequestRepository.findExistingItemRequestIds(unknownItemRequestIds)
+                    .forEach(requestId -> existingItemRequests.put(requestId, true));
+        }
+
+        List<ImportRow> validRows = new ArrayList<>(chunk.size());
+
+        for (ImportRow importRow : chunk) {
+            Long requestId = importRow.itemCreateUpdateDto.getRequestId();
+
+            if (requestId != null && !existingItemRequests.get(requestId)) {
+                importView.addError(importRow.row,
+                        String.format("Запрос вещи с идентификатором %d не найден", requestId));
+            } else {
+                validRows.add(importRow);
+            }
+        }
+
+        if (validRows.isEmpty()) {
+            return;
+        }
+
+        List<Item> savedItems;
+
+        try {
+            savedItems = new TransactionTemplate(transactionManager).execute(status -> {
+                List<Item> items = new ArrayList<>(validRows.size());
+
+                for (ImportRow importRow : validRows) {
+                    Item item = ItemMapper.fromItemCreateUpdateDto(importRow.itemCreateUpdateDto);
+                    Long requestId = importRow.itemCreateUpdateDto.getRequestId();
+
+                    if (requestId != null) {
+                        item.setRequest(itemRequestRepository.getReferenceById(requestId));
+                    }
+
+                    item.setOwner(user);
+                    items.add(item);
+                }
+
+                return itemRepository.saveAll(items);
+            });
+        } catch (DataAccessException e) {
+            String message = e.getMostSpecificCause().getMessage();
+            validRows.forEach(importRow -> importView.addError(importRow.row, message));
+
+            return;
+        }
+
+        if (savedItems != null) {
+            savedItems.forEach(itemSearchIndex::put);
+            importView.setCreated(importView.getCreated() + savedItems.size());
+        }
+    }
+
     private Item findItemById(Long id) {
         return itemRepository.findById(id).orElseThrow(() ->
                 new NotFoundException(String.format("Вещь с идентификатором %d не найдена", id)));
     }
 
     private User findUserById(Long userId) {
-        return userRepository.findById(userId).orElseThrow(() ->
+        return userLookup.findUserById(userId).orElseThrow(() ->
                 new NotFoundException(String.format("Пользователь с идентификатором %d не найден", userId)));
     }
 
@@ -183,43 +431,84 @@ public class ItemServiceImpl implements ItemService {
                 new NotFoundException(String.format("Запрос вещи с идентификатором %d не найден", itemRequestId)));
     }
 
+    /**
+     * ETag вещей с бронированиями и отзывами: версии вещей, сводка о бронированиях
+     * и сводка об отзывах с версиями их авторов.
+     * Вещи берутся из кэша второго уровня, бронирования и отзывы читаются двумя агрегатными запросами.
+     */
+    private String getItemsETag(List<Item> items, boolean withBookingInfo) {
+        if (items.isEmpty()) {
+            return ETags.of(items.size());
+        }
+
+        List<Long> itemIds = items.stream().map(Item::getId).collect(Collectors.toList());
+        String itemVersions = items.stream()
+                .map(item -> item.getId() + ":" + item.getVersion())
+                .collect(Collectors.joining(","));
+        ContentStamp bookingStamp = withBookingInfo ?
+                bookingRepository.findBookingStampByItemIds(itemIds, LocalDateTime.now()) : null;
+        ContentStamp commentStamp = commentRepository.findCommentStampByItemIds(itemIds);
+
+        return ETags.of(itemVersions, bookingStamp, commentStamp);
+    }
+
     private void addBookingInfoToItemViewList(List<ItemView> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
         List<Long> itemIds = items.stream().map(ItemView::getId).collect(Collectors.toList());
+        LocalDateTime dateTime = LocalDateTime.now();
 
-        List<Booking> lastBookings = bookingRepository.findLastBookingByItemIds(
-                itemIds, LocalDateTime.now());
+        Map<Long, Booking> lastBookings = groupByItemId(bookingRepository.findLastBookingByItemIds(
+                itemIds, dateTime));
 
-        List<Booking> nextBookings = bookingRepository.findNextBookingByItemIds(
-                itemIds, LocalDateTime.now());
+        Map<Long, Booking> nextBookings = groupByItemId(bookingRepository.findNextBookingByItemIds(
+                itemIds, dateTime));
 
         for (ItemView item : items) {
-            BookingShortView lastBooking = lastBookings.stream()
-                    .filter(booking -> item.getId().equals(booking.getItem().getId()))
-                    .max(Comparator.comparing(Booking::getEndDt))
-                    .map(BookingMapper::toBookingShortView).orElse(null);
+            item.setLastBooking(toBookingShortView(lastBookings.get(item.getId())));
+            item.setNextBooking(toBookingShortView(nextBookings.get(item.getId())));
+        }
+    }
 
-            BookingShortView nextBooking = nextBookings.stream()
-                    .filter(booking -> item.getId().equals(booking.getItem().getId()))
-                    .min(Comparator.comparing(Booking::getStartDt))
-                    .map(BookingMapper::toBookingShortView).orElse(null);
+    private Map<Long, Booking> groupByItemId(List<Booking> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity(),
+                        (first, second) -> first));
+    }
 
-            item.setLastBooking(lastBooking);
-            item.setNextBooking(nextBooking);
-        }
+    private BookingShortView toBookingShortView(Booking booking) {
+        return booking != null ? BookingMapper.toBookingShortView(booking) : null;
     }
 
     private void addCommentsToItemViewList(List<ItemView> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
         List<Long> itemIds = items.stream().map(ItemView::getId).collect(Collectors.toList());
 
-        List<Comment> comments = commentRepository.findCommentsByItemIds(itemIds);
+        Map<Long, List<CommentView>> comments = commentRepository.findCommentsByItemIds(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentView, Collectors.toList())));
 
         for (ItemView item : items) {
-            List<CommentView> commentViews = comments.stream()
-                    .filter(comment -> item.getId().equals(comment.getItem().getId()))
-                    .sorted(Comparator.comparing(Comment::getCreated))
-                    .map(CommentMapper::toCommentView).collect(Collectors.toList());
+            item.setComments(comments.getOrDefault(item.getId(), new ArrayList<>()));
+        }
+    }
+
+    /**
+     * Строка импорта вместе с её номером во входных данных.
+     */
+    private static final class ImportRow {
+        private final long row;
+
+        private final ItemCreateUpdateDto itemCreateUpdateDto;
 
-            item.setComments(commentViews);
+        private ImportRow(long row, ItemCreateUpdateDto itemCreateUpdateDto) {
+            this.row = row;
+            this.itemCreateUpdateDto = itemCreateUpdateDto;
         }
     }
 }
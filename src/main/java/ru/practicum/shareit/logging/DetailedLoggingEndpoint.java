@@ -0,0 +1,43 @@
+package ru.practicum.shareit.logging;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Включение подробного логирования для пользователя или запроса: /actuator/detailedlogging.
+ * POST {"userId": "1"} или {"requestId": "..."} - включить, DELETE без параметров - выключить для всех.
+ * Открыт только в профиле prod и только на отдельном порту управления (management.server.port),
+ * который не публикуется наружу.
+ */
+@Component
+@Endpoint(id = "detailedlogging")
+@RequiredArgsConstructor
+public class DetailedLoggingEndpoint {
+    private final DetailedLoggingSwitch detailedLoggingSwitch;
+
+    @ReadOperation
+    public Map<String, Set<String>> state() {
+        return detailedLoggingSwitch.getState();
+    }
+
+    @WriteOperation
+    public Map<String, Set<String>> enable(@Nullable String userId, @Nullable String requestId) {
+        detailedLoggingSwitch.enable(userId, requestId);
+
+        return detailedLoggingSwitch.getState();
+    }
+
+    @DeleteOperation
+    public Map<String, Set<String>> disable(@Nullable String userId, @Nullable String requestId) {
+        detailedLoggingSwitch.disable(userId, requestId);
+
+        return detailedLoggingSwitch.getState();
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.logging;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Пользователи и идентификаторы запросов, для которых включено подробное логирование (SQL и параметры).
+ * Изменяется во время работы через {@link DetailedLoggingEndpoint}, без перезапуска приложения.
+ * Включение действует ограниченное время, количество одновременно включённых пользователей и запросов ограничено.
+ */
+@Component
+public class DetailedLoggingSwitch {
+    private final Cache<String, Boolean> userIds;
+
+    private final Cache<String, Boolean> requestIds;
+
+    @Autowired
+    public DetailedLoggingSwitch(@Value("${shareit.detailed-logging.maximum-size:100}") long maximumSize,
+                                 @Value("${shareit.detailed-logging.expire-after-write:PT15M}")
+                                 Duration expireAfterWrite) {
+        this(maximumSize, expireAfterWrite, Ticker.systemTicker());
+    }
+
+    DetailedLoggingSwitch(long maximumSize, Duration expireAfterWrite, Ticker ticker) {
+        this.userIds = newCache(maximumSize, expireAfterWrite, ticker);
+        this.requestIds = newCache(maximumSize, expireAfterWrite, ticker);
+    }
+
+    public boolean isEnabled(String userId, String requestId) {
+        return (userId != null && userIds.getIfPresent(userId) != null)
+                || (requestId != null && requestIds.getIfPresent(requestId) != null);
+    }
+
+    public void enable(String userId, String requestId) {
+        if (userId != null) {
+            userIds.put(userId, Boolean.TRUE);
+        }
+
+        if (requestId != null) {
+            requestIds.put(requestId, Boolean.TRUE);
+        }
+    }
+
+    public void disable(String userId, String requestId) {
+        if (userId == null && requestId == null) {
+            userIds.invalidateAll();
+            requestIds.invalidateAll();
+
+            return;
+        }
+
+        if (userId != null) {
+            userIds.invalidate(userId);
+        }
+
+        if (requestId != null) {
+            requestIds.invalidate(requestId);
+        }
+    }
+
+    public Map<String, Set<String>> getState() {
+        return Map.of("userIds", Set.copyOf(userIds.asMap().keySet()),
+                "requestIds", Set.copyOf(requestIds.asMap().keySet()));
+    }
+
+    private static Cache<String, Boolean> newCache(long maximumSize, Duration expireAfterWrite, Ticker ticker) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Пропускает события любого уровня от заданных логгеров (элементы logger в logback-spring.xml),
+ * если для текущего запроса включено подробное логирование ({@link RequestLoggingFilter#DETAILED_LOGGING_KEY}).
+ * Для остальных запросов решение остаётся за уровнями логгеров.
+ */
+public class DetailedLoggingTurboFilter extends TurboFilter {
+    private final List<String> loggers = new ArrayList<>();
+
+    public void addLogger(String logger) {
+        loggers.add(logger);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (MDC.get(RequestLoggingFilter.DETAILED_LOGGING_KEY) == null) {
+            return FilterReply.NEUTRAL;
+        }
+
+        for (String name : loggers) {
+            if (logger.getName().startsWith(name)) {
+                return FilterReply.ACCEPT;
+            }
+        }
+
+        return FilterReply.NEUTRAL;
+    }
+}
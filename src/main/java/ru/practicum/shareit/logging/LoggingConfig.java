@@ -0,0 +1,16 @@
+package ru.practicum.shareit.logging;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Регистрация {@link RequestLoggingFilter}. Фильтр объявлен здесь, а не через @Component,
+ * чтобы срезы @WebMvcTest не требовали {@link DetailedLoggingSwitch}.
+ */
+@Configuration
+public class LoggingConfig {
+    @Bean
+    public RequestLoggingFilter requestLoggingFilter(DetailedLoggingSwitch detailedLoggingSwitch) {
+        return new RequestLoggingFilter(detailedLoggingSwitch);
+    }
+}
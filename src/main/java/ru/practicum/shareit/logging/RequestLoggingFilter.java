@@ -0,0 +1,66 @@
+package ru.practicum.shareit.logging;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Заполнение MDC для каждого HTTP-запроса: идентификатор запроса (заголовок X-Request-Id или новый),
+ * пользователь из X-Sharer-User-Id и признак подробного логирования из {@link DetailedLoggingSwitch}.
+ * Идентификатор запроса возвращается в ответе в заголовке X-Request-Id.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class RequestLoggingFilter extends OncePerRequestFilter {
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    public static final String REQUEST_ID_KEY = "requestId";
+
+    public static final String USER_ID_KEY = "userId";
+
+    public static final String DETAILED_LOGGING_KEY = "detailedLogging";
+
+    private final DetailedLoggingSwitch detailedLoggingSwitch;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+
+        if (requestId == null || requestId.isBlank()) {
+            requestId = UUID.randomUUID().toString();
+        }
+
+        String userId = request.getHeader(USER_ID_HEADER);
+
+        MDC.put(REQUEST_ID_KEY, requestId);
+
+        if (userId != null) {
+            MDC.put(USER_ID_KEY, userId);
+        }
+
+        if (detailedLoggingSwitch.isEnabled(userId, requestId)) {
+            MDC.put(DETAILED_LOGGING_KEY, "true");
+        }
+
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            MDC.remove(REQUEST_ID_KEY);
+            MDC.remove(USER_ID_KEY);
+            MDC.remove(DETAILED_LOGGING_KEY);
+        }
+    }
+}
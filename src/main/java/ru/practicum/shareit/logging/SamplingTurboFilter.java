@@ -0,0 +1,39 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Выборочная запись событий уровня INFO от логгеров, имя которых содержит loggerNameContains:
+ * записывается одно событие из rate, остальные отбрасываются до создания события.
+ * Предупреждения и ошибки не отбрасываются.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+    private final AtomicLong counter = new AtomicLong();
+
+    private String loggerNameContains = ".controller.";
+
+    private long rate = 1;
+
+    public void setLoggerNameContains(String loggerNameContains) {
+        this.loggerNameContains = loggerNameContains;
+    }
+
+    public void setRate(long rate) {
+        this.rate = rate;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                              Throwable t) {
+        if (rate <= 1 || level != Level.INFO || !logger.getName().contains(loggerNameContains)) {
+            return FilterReply.NEUTRAL;
+        }
+
+        return counter.getAndIncrement() % rate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
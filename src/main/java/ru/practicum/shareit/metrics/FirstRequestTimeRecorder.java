@@ -0,0 +1,41 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Время от запуска JVM до первого обработанного HTTP-запроса.
+ * Записывается один раз в лог и в метрику shareit.startup.first.request.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FirstRequestTimeRecorder {
+    public static final String FIRST_REQUEST = "shareit.startup.first.request";
+
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    @EventListener
+    public void onRequestHandled(ServletRequestHandledEvent event) {
+        if (recorded.get() || !recorded.compareAndSet(false, true)) {
+            return;
+        }
+
+        long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+
+        TimeGauge.builder(FIRST_REQUEST, () -> uptimeMillis, TimeUnit.MILLISECONDS)
+                .description("Time from JVM start to the first handled HTTP request")
+                .register(meterRegistry);
+        log.info("Первый запрос {} обработан через {} мс после запуска JVM", event.getRequestUrl(), uptimeMillis);
+    }
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingState;
+import java.util.Collection;
+
+/**
+ * Метрики сервисов и репозиториев.
+ * <ul>
+ *     <li>shareit.service.invocations - время выполнения каждого метода *Service с тегами service, method,
+ *     state (значение {@link BookingState} среди аргументов) и exception;</li>
+ *     <li>shareit.service.result.size - размер списка, возвращённого методом сервиса;</li>
+ *     <li>shareit.repository.rows - количество строк, возвращённых методом *Repository.</li>
+ * </ul>
+ * Время выполнения методов репозиториев публикует Spring Boot (spring.data.repository.invocations).
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ShareItMetricsAspect {
+    public static final String SERVICE_INVOCATIONS = "shareit.service.invocations";
+
+    public static final String SERVICE_RESULT_SIZE = "shareit.service.result.size";
+
+    public static final String REPOSITORY_ROWS = "shareit.repository.rows";
+
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    @Around("execution(* ru.practicum.shareit..service.*Service.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = NONE;
+
+        try {
+            Object result = joinPoint.proceed();
+
+            if (result instanceof Collection) {
+                DistributionSummary.builder(SERVICE_RESULT_SIZE)
+                        .tag("service", service)
+                        .tag("method", method)
+                        .register(meterRegistry)
+                        .record(((Collection<?>) result).size());
+            }
+
+            return result;
+        } catch (Throwable throwable) {
+            exception = throwable.getClass().getSimpleName();
+
+            throw throwable;
+        } finally {
+            sample.stop(Timer.builder(SERVICE_INVOCATIONS)
+                    .tag("service", service)
+                    .tag("method", method)
+                    .tag("state", findBookingState(joinPoint.getArgs()))
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    @AfterReturning(pointcut = "execution(* ru.practicum.shareit..repository.*Repository.*(..))",
+            returning = "result")
+    public void countRepositoryRows(JoinPoint joinPoint, Object result) {
+        if (result instanceof Collection) {
+            DistributionSummary.builder(REPOSITORY_ROWS)
+                    .tag("repository", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .register(meterRegistry)
+                    .record(((Collection<?>) result).size());
+        }
+    }
+
+    private String findBookingState(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof BookingState) {
+                return ((BookingState) arg).name();
+            }
+        }
+
+        return NONE;
+    }
+}
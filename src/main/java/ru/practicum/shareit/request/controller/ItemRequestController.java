@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestUserView;
 import ru.practicum.shareit.request.dto.ItemRequestView;
@@ -52,10 +54,16 @@ public class ItemRequestController {
 
     /**
      * Получить данные по запросу по идентификатору (id).
+     * Если ETag из If-None-Match не изменился, возвращается 304 без загрузки вещей.
      */
     @GetMapping("/{requestId}")
     public ResponseEntity<ItemRequestUserView> getItemRequestById(@RequestHeader(USER) Long userId,
-                                                  @PathVariable Long requestId) {
+                                                  @PathVariable Long requestId,
+                                                  WebRequest webRequest) {
+        if (webRequest.checkNotModified(itemRequestService.getItemRequestETag(userId, requestId))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
         return ResponseEntity.ok(itemRequestService.getItemRequestById(userId, requestId));
     }
 
@@ -4,6 +4,8 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,12 +29,39 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
             "r.id = ?1")
     Optional<ItemRequest> findItemRequestsById(Long itemRequestId);
 
+    /**
+     * Страница запросов других пользователей вместе с вещами.
+     * Сначала выбирается страница идентификаторов с ограничением в SQL, затем по ним загружаются запросы и вещи:
+     * join fetch коллекции вместе с Pageable привёл бы к постраничной выборке в памяти (HHH000104).
+     */
+    default List<ItemRequest> findItemRequestsExcludingOwnPageable(Long userId, Pageable pageable) {
+        List<Long> itemRequestIds = findItemRequestIdsExcludingOwnPageable(userId, pageable);
+
+        if (itemRequestIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        return findItemRequestsByIds(itemRequestIds);
+    }
+
+    @Query("select r.id " +
+            "from ItemRequest as r " +
+            "where " +
+            "r.user.id != ?1 " +
+            "order by r.created desc, r.id desc")
+    List<Long> findItemRequestIdsExcludingOwnPageable(Long userId, Pageable pageable);
+
     @Query("select distinct r " +
             "from ItemRequest as r " +
-            "inner join r.user as u " +
             "left join fetch r.items as i " +
             "where " +
-            "u.id != ?1 " +
-            "order by r.created desc")
-    List<ItemRequest> findItemRequestsExcludingOwnPageable(Long userId, Pageable pageable);
+            "r.id in ?1 " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findItemRequestsByIds(List<Long> itemRequestIds);
+
+    @Query("select r.id " +
+            "from ItemRequest as r " +
+            "where " +
+            "r.id in ?1")
+    List<Long> findExistingItemRequestIds(Collection<Long> itemRequestIds);
 }
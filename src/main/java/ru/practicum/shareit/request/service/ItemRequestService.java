@@ -17,5 +17,10 @@ public interface ItemRequestService {
 
     ItemRequestUserView getItemRequestById(Long userId, Long id);
 
+    /**
+     * ETag запроса вместе с ответами на него, вычисляется без загрузки вещей.
+     */
+    String getItemRequestETag(Long userId, Long id);
+
     List<ItemRequestUserView> getItemRequestsPageable(Long userId, Integer from, Integer size);
 }
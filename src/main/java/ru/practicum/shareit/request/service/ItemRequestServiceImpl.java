@@ -1,19 +1,21 @@
 package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestUserView;
 import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.shareitutils.etag.ETags;
+import ru.practicum.shareit.shareitutils.pageable.OffsetPageRequest;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
@@ -27,7 +29,9 @@ import java.util.List;
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
 
-    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+
+    private final UserLookup userLookup;
 
     @Override
     @Transactional
@@ -54,6 +58,17 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return ItemRequestMapper.toItemRequestUserView(itemRequest);
     }
 
+    @Override
+    public String getItemRequestETag(Long userId, Long id) {
+        findUserById(userId);
+
+        if (itemRequestRepository.findById(id).isEmpty()) {
+            throw itemRequestNotFound(id);
+        }
+
+        return ETags.of(id, itemRepository.findItemStampByRequestId(id));
+    }
+
     @Override
     public List<ItemRequestUserView> getItemRequestsPageable(Long userId, Integer from, Integer size) {
         User user = findUserById(userId);
@@ -62,8 +77,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
             return Collections.emptyList();
         }
 
-        int page = from / size;
-        Pageable pageable = PageRequest.of(page, size);
+        Pageable pageable = OffsetPageRequest.of(from, size);
         List<ItemRequest> itemRequests = itemRequestRepository.findItemRequestsExcludingOwnPageable(user.getId(),
                 pageable);
 
@@ -71,12 +85,16 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     private User findUserById(Long userId) {
-        return userRepository.findById(userId).orElseThrow(() ->
+        return userLookup.findUserById(userId).orElseThrow(() ->
                 new NotFoundException(String.format("Пользователь c идентификатором %d не найден", userId)));
     }
 
     private ItemRequest findItemRequestById(Long itemRequestId) {
         return itemRequestRepository.findItemRequestsById(itemRequestId).orElseThrow(() ->
-                new NotFoundException(String.format("Запрос c идентификатором %d не найден", itemRequestId)));
+                itemRequestNotFound(itemRequestId));
+    }
+
+    private NotFoundException itemRequestNotFound(Long itemRequestId) {
+        return new NotFoundException(String.format("Запрос c идентификатором %d не найден", itemRequestId));
     }
 }
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.shareitutils.etag;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Сводка о наборе строк, из которых собирается ответ: считается одним агрегатным запросом
+ * и меняется при любом добавлении или изменении строки набора.
+ */
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+@ToString
+public class ContentStamp {
+    /**
+     * Количество строк.
+     */
+    private final Long count;
+
+    /**
+     * Наибольший идентификатор.
+     */
+    private final Long maxId;
+
+    /**
+     * Счётчик изменений строк, только растёт (например, сумма версий).
+     */
+    private final Long revision;
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.shareitutils.etag;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.springframework.util.DigestUtils;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Построение сильных ETag для условных GET-запросов (If-None-Match).
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ETags {
+    /**
+     * ETag из частей, от которых зависит ответ: MD5 их строкового представления в кавычках.
+     */
+    public static String of(Object... parts) {
+        String content = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining("|"));
+
+        return "\"" + DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Поиск пользователя по идентификатору через ограниченный кэш с вытеснением по времени.
+ * Используется сервисами для проверки пользователя из заголовка X-Sharer-User-Id.
+ * Возвращает отсоединённую копию пользователя, отсутствующие пользователи не кэшируются.
+ * Статистика попаданий и промахов публикуется в метриках cache.* с тегом cache=users.
+ */
+@Component
+public class UserLookup {
+    private final UserRepository userRepository;
+
+    private final Cache<Long, User> users;
+
+    public UserLookup(UserRepository userRepository,
+                      MeterRegistry meterRegistry,
+                      @Value("${shareit.user-cache.maximum-size:10000}") long maximumSize,
+                      @Value("${shareit.user-cache.expire-after-write:PT5M}") Duration expireAfterWrite) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+    }
+
+    public Optional<User> findUserById(Long userId) {
+        User user = users.get(userId, id -> userRepository.findById(id).map(UserLookup::copy).orElse(null));
+
+        return Optional.ofNullable(user).map(UserLookup::copy);
+    }
+
+    /**
+     * Сброс пользователя из кэша. Внутри транзакции выполняется после её фиксации.
+     */
+    public void invalidate(Long userId) {
+        users.invalidate(userId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    users.invalidate(userId);
+                }
+            });
+        }
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getName(), user.getEmail(), user.getVersion());
+    }
+}
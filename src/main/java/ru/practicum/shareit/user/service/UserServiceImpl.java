@@ -2,15 +2,23 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.exeption.ConflictException;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import javax.persistence.EntityManagerFactory;
 import java.util.List;
 
 /**
@@ -22,6 +30,12 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
 
+    private final UserLookup userLookup;
+
+    private final ItemSearchIndex itemSearchIndex;
+
+    private final EntityManagerFactory entityManagerFactory;
+
     @Override
     public List<UserDto> get() {
         log.info("Запрошен список всех пользователей");
@@ -39,12 +53,12 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public UserDto create(UserDto userDto) {
-        log.info("Попытка добавить пользователя {}", userDto);
+        log.debug("Попытка добавить пользователя {}", userDto);
 
         User user = UserMapper.fromUserDto(userDto);
 
         try {
-            return UserMapper.toUserDto(userRepository.save(user));
+            return UserMapper.toUserDto(userRepository.saveAndFlush(user));
         } catch (DataIntegrityViolationException e) {
             throw new ConflictException(e.getMostSpecificCause().getMessage());
         }
@@ -53,7 +67,7 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional
     public UserDto update(UserDto userDto) {
-        log.info("Попытка обновить пользователя {}", userDto);
+        log.debug("Попытка обновить пользователя {}", userDto);
 
         Long id = userDto.getId();
         String name = userDto.getName();
@@ -70,7 +84,10 @@ public class UserServiceImpl implements UserService {
         }
 
         try {
-            return UserMapper.toUserDto(userRepository.save(userForUpdate));
+            UserDto updatedUser = UserMapper.toUserDto(userRepository.saveAndFlush(userForUpdate));
+            userLookup.invalidate(id);
+
+            return updatedUser;
         } catch (DataIntegrityViolationException e) {
             throw new ConflictException(e.getMostSpecificCause().getMessage());
         }
@@ -83,6 +100,35 @@ public class UserServiceImpl implements UserService {
 
         User user = getUserById(id);
         userRepository.delete(user);
+        userLookup.invalidate(id);
+        itemSearchIndex.removeByOwnerId(id);
+        evictCascadedEntities();
+    }
+
+    /**
+     * Вещи и запросы пользователя удаляются базой данных каскадно (on delete cascade), а у вещей других
+     * пользователей, отвечающих на его запросы, сбрасывается request_id (on delete set null). Hibernate об этих
+     * изменениях не знает, поэтому регионы вещей и запросов и кэш запросов сбрасываются целиком
+     * после фиксации транзакции.
+     */
+    private void evictCascadedEntities() {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        Runnable evict = () -> {
+            cache.evictEntityData(Item.class);
+            cache.evictEntityData(ItemRequest.class);
+            cache.evictQueryRegions();
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
     }
 
     private User getUserById(Long id) {
@@ -0,0 +1,86 @@
+-- Исходная схема. Применяется Flyway один раз к пустой схеме, повторные запуски пропускают уже применённые версии.
+
+-- Последовательности идентификаторов. Шаг совпадает с allocationSize сущностей:
+-- Hibernate (pooled-lo) выделяет 50 идентификаторов за одно обращение, что позволяет пакетную вставку.
+create sequence users_seq start with 1 increment by 50;
+create sequence requests_seq start with 1 increment by 50;
+create sequence items_seq start with 1 increment by 50;
+create sequence bookings_seq start with 1 increment by 50;
+create sequence comments_seq start with 1 increment by 50;
+
+-- Пользователь
+create table users (
+    user_id bigint not null,
+    user_name varchar(255) not null,
+    user_email varchar(255) not null,
+    constraint pk_user_id primary key (user_id),
+    constraint uq_user_email unique (user_email)
+);
+
+create index idx_user_email on users (user_email);
+
+-- Запросы вещей
+create table requests (
+    request_id bigint not null,
+    request_description varchar(255) not null,
+    user_id bigint,
+    request_created timestamp without time zone not null,
+    constraint pk_request_id primary key (request_id),
+    constraint fk_request_user foreign key (user_id) references users(user_id) on delete cascade
+);
+
+create index idx_requests_created on requests (request_created desc, request_id desc);
+create index idx_requests_user on requests (user_id, request_created desc);
+
+-- Вещь
+create table items (
+    item_id bigint not null,
+    item_name varchar(255) not null,
+    item_description varchar(1024) not null,
+    item_is_available boolean not null,
+    user_id bigint,
+    request_id bigint,
+    item_version bigint default 0 not null,
+    constraint pk_item_id primary key (item_id),
+    constraint fk_item_owner_user foreign key (user_id) references users(user_id) on delete cascade,
+    constraint fk_item_request foreign key (request_id) references requests(request_id) on delete set null
+);
+
+create index idx_items_owner on items (user_id);
+
+-- Бронирование вещи
+create table bookings (
+    booking_id bigint not null,
+    booking_startdt timestamp without time zone not null,
+    booking_enddt timestamp without time zone not null,
+    item_id bigint,
+    user_id bigint,
+    booking_status varchar(10),
+    booking_version bigint default 0 not null,
+    constraint pk_booking_id primary key (booking_id),
+    constraint fk_booking_booker_user foreign key (user_id) references users(user_id) on delete cascade,
+    constraint fk_booking_item foreign key (item_id) references items(item_id) on delete cascade
+);
+
+-- Индексы для выборки бронирований по состоянию (ALL/FUTURE, PAST, WAITING/REJECTED)
+-- и для постраничной выдачи по курсору (booking_startdt, booking_id)
+create index idx_bookings_booker_start on bookings (user_id, booking_startdt desc, booking_id desc);
+create index idx_bookings_booker_end on bookings (user_id, booking_enddt);
+create index idx_bookings_booker_status on bookings (user_id, booking_status, booking_startdt desc);
+create index idx_bookings_item_start on bookings (item_id, booking_startdt desc, booking_id desc);
+create index idx_bookings_item_end on bookings (item_id, booking_enddt);
+create index idx_bookings_item_status on bookings (item_id, booking_status, booking_startdt desc);
+
+-- Отзывы
+create table comments (
+    comment_id bigint not null,
+    comment_text varchar(1024) not null,
+    item_id bigint,
+    user_id bigint,
+    comment_created timestamp without time zone not null,
+    constraint pk_comment_id primary key (comment_id),
+    constraint fk_comment_author_user foreign key (user_id) references users(user_id) on delete cascade,
+    constraint fk_comment_item foreign key (item_id) references items(item_id) on delete cascade
+);
+
+create index idx_comments_item_created on comments (item_id, comment_created, comment_id);
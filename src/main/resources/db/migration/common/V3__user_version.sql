@@ -0,0 +1,3 @@
+-- Версия пользователя: растёт при каждом изменении, в том числе при смене имени,
+-- и входит в сводку об отзывах для ETag вещи, где показываются имена авторов отзывов.
+alter table users add column user_version bigint default 0 not null;
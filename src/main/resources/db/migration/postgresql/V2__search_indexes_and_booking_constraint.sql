@@ -0,0 +1,18 @@
+-- Триграммные индексы для поиска вещей по подстроке (upper(...) like '%text%').
+-- B-tree не используется при ведущем '%', GIN по триграммам - используется.
+create extension if not exists pg_trgm;
+
+create index if not exists idx_items_name_trgm on items using gin (upper(item_name) gin_trgm_ops)
+    where item_is_available;
+create index if not exists idx_items_description_trgm on items using gin (upper(item_description) gin_trgm_ops)
+    where item_is_available;
+
+-- Запрет пересекающихся ожидающих и подтверждённых бронирований одной вещи.
+-- Проверка выполняется по GiST-индексу за логарифмическое время и не зависит от уровня изоляции транзакций.
+create extension if not exists btree_gist;
+
+alter table bookings drop constraint if exists ex_bookings_item_period;
+alter table bookings add constraint ex_bookings_item_period exclude using gist (
+    item_id with =,
+    tsrange(booking_startdt, booking_enddt) with &&
+) where (booking_status in ('WAITING', 'APPROVED'));
@@ -0,0 +1,307 @@
+package ru.practicum.shareit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingRequest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Нагрузочный прогон приложения на встроенной H2: заполнение пользователей, вещей, запросов и бронирований,
+ * затем смешанный поток запросов от многих клиентов по HTTP. Для каждой точки входа выводятся пропускная
+ * способность и задержки p50/p99/p999. Объём данных и нагрузки задаётся свойствами shareit.load.*.
+ * Запуск: mvn test -P load
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "logging.level.ru.practicum.shareit=WARN",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "logging.level.org.springframework.transaction.interceptor=WARN",
+        "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"
+})
+@Tag("load")
+@EnabledIfSystemProperty(named = "shareit.load", matches = "true")
+class ShareItLoadTest {
+    private static final int USERS = Integer.getInteger("shareit.load.users", 1_000);
+    private static final int ITEMS = Integer.getInteger("shareit.load.items", 10_000);
+    private static final int BOOKINGS = Integer.getInteger("shareit.load.bookings", 50_000);
+    private static final int CLIENTS = Integer.getInteger("shareit.load.clients", 64);
+    private static final int WARMUP_SECONDS = Integer.getInteger("shareit.load.warmup-seconds", 10);
+    private static final int DURATION_SECONDS = Integer.getInteger("shareit.load.duration-seconds", 60);
+    private static final int SAVE_CHUNK_SIZE = 1_000;
+    private static final String USER = "X-Sharer-User-Id";
+    private static final String[] SEARCH_TEXTS = {"дрель", "пила", "отвертка", "молоток", "лестница"};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemSearchIndex itemSearchIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private List<User> users;
+
+    private List<Item> items;
+
+    @Test
+    void run_whenMixedTrafficFromManyClients_thenPrintLatencyPerEndpoint() throws Exception {
+        seed();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long deadlineNanos = measureFromNanos + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+        List<Future<Map<String, EndpointStats>>> futures = new ArrayList<>();
+
+        for (int i = 0; i < CLIENTS; i++) {
+            futures.add(executor.submit(() -> runClient(measureFromNanos, deadlineNanos)));
+        }
+
+        Map<String, EndpointStats> total = new TreeMap<>();
+
+        for (Future<Map<String, EndpointStats>> future : futures) {
+            future.get(WARMUP_SECONDS + DURATION_SECONDS + 60, TimeUnit.SECONDS)
+                    .forEach((endpoint, stats) -> total.computeIfAbsent(endpoint, EndpointStats::new).add(stats));
+        }
+
+        executor.shutdown();
+
+        System.out.printf("users=%d items=%d bookings=%d clients=%d duration=%ds%n",
+                USERS, ITEMS, BOOKINGS, CLIENTS, DURATION_SECONDS);
+        total.values().forEach(stats -> stats.print(DURATION_SECONDS));
+
+        assertEquals(0, total.values().stream().mapToLong(stats -> stats.errors).sum());
+    }
+
+    private Map<String, EndpointStats> runClient(long measureFromNanos, long deadlineNanos) throws Exception {
+        Map<String, EndpointStats> result = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (System.nanoTime() < deadlineNanos) {
+            int operation = random.nextInt(100);
+            String endpoint;
+            HttpRequest request;
+
+            if (operation < 25) {
+                endpoint = "GET /items";
+                request = get("/items", randomUser(random));
+            } else if (operation < 50) {
+                endpoint = "GET /items/search";
+                String text = URLEncoder.encode(SEARCH_TEXTS[random.nextInt(SEARCH_TEXTS.length)],
+                        StandardCharsets.UTF_8);
+                request = get("/items/search?text=" + text + "&from=0&size=20", randomUser(random));
+            } else if (operation < 70) {
+                BookingState state = BookingState.values()[random.nextInt(BookingState.values().length)];
+                endpoint = "GET /bookings";
+                request = get("/bookings?state=" + state + "&from=0&size=20", randomUser(random));
+            } else if (operation < 85) {
+                endpoint = "GET /requests/all";
+                request = get("/requests/all?from=0&size=20", randomUser(random));
+            } else {
+                endpoint = "POST /bookings";
+                request = postBooking(random);
+            }
+
+            long requestNanos = System.nanoTime();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            long responseNanos = System.nanoTime();
+
+            if (requestNanos >= measureFromNanos) {
+                boolean expected = response.statusCode() == 200 ||
+                        (endpoint.startsWith("POST") && response.statusCode() == 409);
+                result.computeIfAbsent(endpoint, EndpointStats::new).record(responseNanos - requestNanos, expected);
+            }
+        }
+
+        return result;
+    }
+
+    private HttpRequest get(String path, User user) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(USER, String.valueOf(user.getId()))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest postBooking(ThreadLocalRandom random) throws Exception {
+        int itemIndex = random.nextInt(items.size());
+        LocalDateTime start = LocalDateTime.now().plusYears(1).plusHours(random.nextInt(100_000));
+        BookingRequest body = new BookingRequest(items.get(itemIndex).getId(), start,
+                start.plusHours(1 + random.nextInt(48)));
+
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/bookings"))
+                .header(USER, String.valueOf(users.get(bookerIndex(itemIndex, random.nextInt())).getId()))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+    }
+
+    private User randomUser(ThreadLocalRandom random) {
+        return users.get(random.nextInt(users.size()));
+    }
+
+    /**
+     * Бронирующий всегда отличается от владельца вещи (владелец вещи с индексом i - пользователь i % USERS).
+     */
+    private int bookerIndex(int itemIndex, int seed) {
+        return (itemIndex % USERS + 1 + Math.floorMod(seed, USERS - 1)) % USERS;
+    }
+
+    private void seed() {
+        long startNanos = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        List<User> newUsers = new ArrayList<>();
+        List<ItemRequest> newRequests = new ArrayList<>();
+        List<Item> newItems = new ArrayList<>();
+        List<Booking> newBookings = new ArrayList<>();
+
+        for (int i = 0; i < USERS; i++) {
+            newUsers.add(new User(null, "user_" + i, "load_user_" + i + "@email.com"));
+        }
+
+        users = saveInChunks(userRepository, newUsers);
+
+        for (int i = 0; i < ITEMS / 10; i++) {
+            newRequests.add(new ItemRequest(null, "нужна " + SEARCH_TEXTS[i % SEARCH_TEXTS.length],
+                    users.get(i % USERS), now.minusHours(i), new ArrayList<>()));
+        }
+
+        List<ItemRequest> requests = saveInChunks(itemRequestRepository, newRequests);
+
+        for (int i = 0; i < ITEMS; i++) {
+            String name = SEARCH_TEXTS[i % SEARCH_TEXTS.length];
+            newItems.add(new Item(null, name + " " + i, "описание: " + name + " номер " + i, true,
+                    users.get(i % USERS), i % 10 == 0 ? requests.get(i / 10) : null, null));
+        }
+
+        items = saveInChunks(itemRepository, newItems);
+        LocalDateTime base = now.minusDays(BOOKINGS / ITEMS);
+
+        for (int i = 0; i < BOOKINGS; i++) {
+            int itemIndex = i % ITEMS;
+            LocalDateTime start = base.plusDays(2L * (i / ITEMS));
+            BookingStatus status = start.isBefore(now) ? BookingStatus.APPROVED : BookingStatus.WAITING;
+            newBookings.add(new Booking(null, start, start.plusDays(1), items.get(itemIndex),
+                    users.get(bookerIndex(itemIndex, i)), status, null));
+        }
+
+        saveInChunks(bookingRepository, newBookings);
+        itemSearchIndex.rebuild();
+
+        System.out.printf("seed: users=%d requests=%d items=%d bookings=%d time=%dms%n", USERS, requests.size(),
+                ITEMS, BOOKINGS, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    private <T> List<T> saveInChunks(JpaRepository<T, Long> repository, List<T> entities) {
+        List<T> saved = new ArrayList<>(entities.size());
+
+        for (int from = 0; from < entities.size(); from += SAVE_CHUNK_SIZE) {
+            saved.addAll(repository.saveAll(entities.subList(from, Math.min(from + SAVE_CHUNK_SIZE,
+                    entities.size()))));
+        }
+
+        return saved;
+    }
+
+    private static class EndpointStats {
+        private final String endpoint;
+
+        private long[] latencies = new long[1024];
+
+        private int count;
+
+        private long errors;
+
+        EndpointStats(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        void record(long latencyNanos, boolean expected) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+
+            latencies[count++] = latencyNanos;
+
+            if (!expected) {
+                errors++;
+            }
+        }
+
+        void add(EndpointStats other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], true);
+            }
+
+            errors += other.errors;
+        }
+
+        void print(int durationSeconds) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+
+            System.out.printf("%-18s requests=%d errors=%d throughput=%.0f/s p50=%dus p99=%dus p999=%dus%n",
+                    endpoint, count, errors, (double) count / durationSeconds,
+                    percentile(sorted, 0.5), percentile(sorted, 0.99), percentile(sorted, 0.999));
+        }
+
+        private static long percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+
+            return sorted[Math.min(sorted.length - 1, (int) (sorted.length * percentile))] / 1_000;
+        }
+    }
+}
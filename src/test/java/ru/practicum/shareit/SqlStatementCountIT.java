@@ -0,0 +1,157 @@
+package ru.practicum.shareit;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.shareitutils.sql.SqlStatementRecorder;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Верхние границы количества SQL-выражений на один HTTP-запрос к спискам.
+ * Данных больше, чем допустимых выражений, поэтому загрузка связей по одной строке (N+1) превышает границу.
+ */
+@SpringBootTest(properties = SqlStatementRecorder.PROPERTY)
+@AutoConfigureMockMvc
+class SqlStatementCountIT {
+    private static final String USER = "X-Sharer-User-Id";
+    private static final int ROWS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        owner = userRepository.save(new User(null, "owner", "statements_owner@email.com"));
+        booker = userRepository.save(new User(null, "booker", "statements_booker@email.com"));
+        List<Item> items = new ArrayList<>();
+
+        for (int i = 0; i < ROWS; i++) {
+            ItemRequest request = itemRequestRepository.save(new ItemRequest(null, "request_" + i, booker,
+                    now.minusDays(i), new ArrayList<>()));
+            items.add(itemRepository.save(new Item(null, "item_" + i, "description_" + i, true, owner,
+                    request, null)));
+        }
+
+        for (Item item : items) {
+            bookingRepository.save(new Booking(null, now.minusDays(3), now.minusDays(2), item, booker,
+                    BookingStatus.APPROVED, null));
+            bookingRepository.save(new Booking(null, now.plusDays(2), now.plusDays(3), item, booker,
+                    BookingStatus.WAITING, null));
+            commentRepository.save(new Comment(null, "comment", item, booker, now.minusDays(1)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getUserItems_whenItemsHaveBookingsAndComments_thenStatementCountBounded() {
+        // Пользователь, вещи, сводки о бронированиях и отзывах для ETag, затем вещи повторно
+        // (кэш запросов в тестах выключен), последние и следующие бронирования, отзывы.
+        assertStatementsAtMost(8, get("/items").header(USER, owner.getId()));
+    }
+
+    @SneakyThrows
+    @Test
+    void getUserItems_whenNotModified_thenOnlyETagStatements() {
+        String etag = mockMvc.perform(get("/items").header(USER, owner.getId()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        SqlStatementRecorder.clear();
+
+        mockMvc.perform(get("/items").header(USER, owner.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        List<String> statements = SqlStatementRecorder.getStatements();
+
+        assertTrue(statements.size() <= 3, String.format("Ожидалось не более 3 SQL-выражений, выполнено %d:%n%s",
+                statements.size(), String.join(System.lineSeparator(), statements)));
+        assertTrue(statements.stream().noneMatch(statement -> statement.contains("row_number")),
+                "Последнее и следующее бронирование не должны загружаться");
+    }
+
+    @Test
+    void getBookingsByBooker_whenManyBookings_thenStatementCountBounded() {
+        assertStatementsAtMost(2, get("/bookings").header(USER, booker.getId()));
+    }
+
+    @Test
+    void getBookingsByOwner_whenManyBookings_thenStatementCountBounded() {
+        assertStatementsAtMost(2, get("/bookings/owner").header(USER, owner.getId()));
+    }
+
+    @Test
+    void getUserItemRequest_whenRequestsHaveItems_thenStatementCountBounded() {
+        assertStatementsAtMost(2, get("/requests").header(USER, booker.getId()));
+    }
+
+    @Test
+    void getItemRequestsPageable_whenRequestsHaveItems_thenStatementCountBounded() {
+        assertStatementsAtMost(3, get("/requests/all").header(USER, owner.getId())
+                .param("from", "0")
+                .param("size", String.valueOf(ROWS)));
+    }
+
+    @SneakyThrows
+    private void assertStatementsAtMost(int max, RequestBuilder request) {
+        SqlStatementRecorder.clear();
+
+        mockMvc.perform(request).andExpect(status().isOk());
+
+        List<String> statements = SqlStatementRecorder.getStatements();
+
+        assertTrue(statements.size() <= max, String.format("Ожидалось не более %d SQL-выражений, выполнено %d:%n%s",
+                max, statements.size(), String.join(System.lineSeparator(), statements)));
+    }
+}
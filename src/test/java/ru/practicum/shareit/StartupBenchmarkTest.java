@@ -0,0 +1,100 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Время от запуска JVM с приложением до первого обслуженного запроса: первый запуск на пустой базе
+ * (Flyway создаёт схему) и повторные запуски на той же базе (схема актуальна, миграции пропускаются).
+ * Приложение запускается в отдельном процессе с файловой базой H2.
+ * Запуск: mvn test -P benchmark
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class StartupBenchmarkTest {
+    private static final int RESTARTS = 3;
+    private static final long TIMEOUT_SECONDS = 120;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void start_whenSchemaMissingAndWhenCurrent_thenPrintTimeToFirstRequest() throws Exception {
+        long coldMillis = startAndAwaitFirstRequest("cold");
+        System.out.printf("startup=cold time_to_first_request=%dms%n", coldMillis);
+
+        for (int i = 1; i <= RESTARTS; i++) {
+            long warmMillis = startAndAwaitFirstRequest("warm_" + i);
+            System.out.printf("startup=warm_%d time_to_first_request=%dms%n", i, warmMillis);
+        }
+    }
+
+    private long startAndAwaitFirstRequest(String run) throws Exception {
+        int port = findFreePort();
+        // В профиле prod actuator слушает отдельный порт на 127.0.0.1
+        int managementPort = findFreePort();
+        String javaBin = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        Process process = new ProcessBuilder(List.of(javaBin,
+                "-cp", System.getProperty("java.class.path"),
+                ShareItApp.class.getName(),
+                "--server.port=" + port,
+                "--management.server.port=" + managementPort,
+                "--spring.profiles.active=prod",
+                "--spring.datasource.url=jdbc:h2:file:" + tempDir.resolve("shareit").toAbsolutePath(),
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password="))
+                .redirectErrorStream(true)
+                .redirectOutput(tempDir.resolve(run + ".log").toFile())
+                .start();
+        long startNanos = System.nanoTime();
+
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + managementPort + "/actuator/health"))
+                    .GET()
+                    .build();
+            long deadlineNanos = startNanos + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+
+            while (System.nanoTime() < deadlineNanos) {
+                assertTrue(process.isAlive(), "Приложение завершилось при запуске, см. " + run + ".log");
+
+                try {
+                    if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                    }
+                } catch (ConnectException exception) {
+                    // Сервер ещё не принимает соединения
+                }
+
+                Thread.sleep(20);
+            }
+
+            throw new AssertionError("Приложение не ответило за " + TIMEOUT_SECONDS + " секунд");
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private int findFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -7,13 +7,21 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.BookingApprovalOutcome;
 import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingApprovalRequest;
+import ru.practicum.shareit.booking.dto.BookingApprovalView;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exeption.BadRequestException;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.shareitutils.dto.IdFieldView;
+import ru.practicum.shareit.shareitutils.dto.IdNameFieldView;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -41,6 +49,8 @@ class BookingControllerIT {
 
     private static final String USER = "X-Sharer-User-Id";
 
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+
     @SneakyThrows
     @Test
     void getBooking_whenValid_thenResponseStatusOkAndBookingViewInBody() {
@@ -113,29 +123,90 @@ class BookingControllerIT {
     @SneakyThrows
     @Test
     void getBookingsByBooker_whenValid_thenResponseStatusOkAndCollectionBookingViewInBody() {
-        List<BookingView> bookings = List.of(new BookingView());
+        List<BookingView> bookings = List.of(makeBookingView());
         BookingState state = BookingState.ALL;
         Long userId = 1L;
         Integer from = 0;
         Integer size = 1;
         when(bookingService.getBookingsByBooker(userId, state, from, size)).thenReturn(bookings);
 
-        String result = mockMvc.perform(get("/bookings")
+        MockHttpServletResponse response = mockMvc.perform(get("/bookings")
                         .param("state", state.toString())
                         .param("from", from.toString())
                         .param("size", size.toString())
                         .header(USER, userId))
                 .andExpect(status().isOk())
                 .andReturn()
-                .getResponse()
-                .getContentAsString();
+                .getResponse();
 
-        assertNotNull(result);
-        assertEquals(objectMapper.writeValueAsString(bookings), result);
+        assertNotNull(response.getContentAsString());
+        assertEquals(objectMapper.writeValueAsString(bookings), response.getContentAsString());
+        assertEquals(BookingMapper.toCursorToken(bookings.get(0)), response.getHeader(NEXT_CURSOR));
 
         verify(bookingService, times(1)).getBookingsByBooker(userId, state, from, size);
     }
 
+    @SneakyThrows
+    @Test
+    void getBookingsByBooker_whenAfterCursorAndPageEmpty_thenSameCursorInHeader() {
+        BookingState state = BookingState.ALL;
+        Long userId = 1L;
+        String after = BookingMapper.toCursorToken(makeBookingView());
+        when(bookingService.getBookingsByBookerAfter(userId, state, after, 20)).thenReturn(List.of());
+
+        MockHttpServletResponse response = mockMvc.perform(get("/bookings")
+                        .param("state", state.toString())
+                        .param("after", after)
+                        .header(USER, userId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        assertEquals("[]", response.getContentAsString());
+        assertEquals(after, response.getHeader(NEXT_CURSOR));
+    }
+
+    @SneakyThrows
+    @Test
+    void getBookingsByBooker_whenAfterCursorWithFrom_thenResponseStatusBadRequest() {
+        Long userId = 1L;
+        String after = BookingMapper.toCursorToken(makeBookingView());
+
+        mockMvc.perform(get("/bookings")
+                        .param("from", "0")
+                        .param("after", after)
+                        .header(USER, userId))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).getBookingsByBookerAfter(Mockito.anyLong(), Mockito.any(BookingState.class),
+                Mockito.anyString(), Mockito.anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void getBookingsByBooker_whenAfterCursor_thenResponseStatusOkAndNextPageInBody() {
+        List<BookingView> bookings = List.of(makeBookingView());
+        BookingState state = BookingState.ALL;
+        Long userId = 1L;
+        String after = BookingMapper.toCursorToken(makeBookingView());
+        when(bookingService.getBookingsByBookerAfter(userId, state, after, 20)).thenReturn(bookings);
+
+        MockHttpServletResponse response = mockMvc.perform(get("/bookings")
+                        .param("state", state.toString())
+                        .param("after", after)
+                        .header(USER, userId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        assertEquals(objectMapper.writeValueAsString(bookings), response.getContentAsString());
+        assertEquals(BookingMapper.toCursorToken(bookings.get(0)), response.getHeader(NEXT_CURSOR));
+
+        verify(bookingService, times(1)).getBookingsByBookerAfter(userId, state, after, 20);
+        verify(bookingService, never()).getBookingsByBooker(Mockito.anyLong(), Mockito.any(BookingState.class),
+                Mockito.any(), Mockito.any());
+    }
+
     @SneakyThrows
     @Test
     void getBookingsByBooker_whenUserIdIsNotValid_thenResponseStatusNotFound() {
@@ -175,29 +246,90 @@ class BookingControllerIT {
     @SneakyThrows
     @Test
     void getBookingsByOwner_whenValid_thenResponseStatusOkAndCollectionBookingViewInBody() {
-        List<BookingView> bookings = List.of(new BookingView());
+        List<BookingView> bookings = List.of(makeBookingView());
         BookingState state = BookingState.ALL;
         Long userId = 1L;
         Integer from = 0;
         Integer size = 1;
         when(bookingService.getBookingsByOwner(userId, state, from, size)).thenReturn(bookings);
 
-        String result = mockMvc.perform(get("/bookings/owner")
+        MockHttpServletResponse response = mockMvc.perform(get("/bookings/owner")
                         .param("state", state.toString())
                         .param("from", from.toString())
                         .param("size", size.toString())
                         .header(USER, userId))
                 .andExpect(status().isOk())
                 .andReturn()
-                .getResponse()
-                .getContentAsString();
+                .getResponse();
 
-        assertNotNull(result);
-        assertEquals(objectMapper.writeValueAsString(bookings), result);
+        assertNotNull(response.getContentAsString());
+        assertEquals(objectMapper.writeValueAsString(bookings), response.getContentAsString());
+        assertEquals(BookingMapper.toCursorToken(bookings.get(0)), response.getHeader(NEXT_CURSOR));
 
         verify(bookingService, times(1)).getBookingsByOwner(userId, state, from, size);
     }
 
+    @SneakyThrows
+    @Test
+    void getBookingsByOwner_whenAfterCursorAndPageEmpty_thenSameCursorInHeader() {
+        BookingState state = BookingState.ALL;
+        Long userId = 1L;
+        String after = BookingMapper.toCursorToken(makeBookingView());
+        when(bookingService.getBookingsByOwnerAfter(userId, state, after, 20)).thenReturn(List.of());
+
+        MockHttpServletResponse response = mockMvc.perform(get("/bookings/owner")
+                        .param("state", state.toString())
+                        .param("after", after)
+                        .header(USER, userId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        assertEquals("[]", response.getContentAsString());
+        assertEquals(after, response.getHeader(NEXT_CURSOR));
+    }
+
+    @SneakyThrows
+    @Test
+    void getBookingsByOwner_whenAfterCursorWithFrom_thenResponseStatusBadRequest() {
+        Long userId = 1L;
+        String after = BookingMapper.toCursorToken(makeBookingView());
+
+        mockMvc.perform(get("/bookings/owner")
+                        .param("from", "0")
+                        .param("after", after)
+                        .header(USER, userId))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).getBookingsByOwnerAfter(Mockito.anyLong(), Mockito.any(BookingState.class),
+                Mockito.anyString(), Mockito.anyInt());
+    }
+
+    @SneakyThrows
+    @Test
+    void getBookingsByOwner_whenAfterCursor_thenResponseStatusOkAndNextPageInBody() {
+        List<BookingView> bookings = List.of(makeBookingView());
+        BookingState state = BookingState.ALL;
+        Long userId = 1L;
+        String after = BookingMapper.toCursorToken(makeBookingView());
+        when(bookingService.getBookingsByOwnerAfter(userId, state, after, 20)).thenReturn(bookings);
+
+        MockHttpServletResponse response = mockMvc.perform(get("/bookings/owner")
+                        .param("state", state.toString())
+                        .param("after", after)
+                        .header(USER, userId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+
+        assertEquals(objectMapper.writeValueAsString(bookings), response.getContentAsString());
+        assertEquals(BookingMapper.toCursorToken(bookings.get(0)), response.getHeader(NEXT_CURSOR));
+
+        verify(bookingService, times(1)).getBookingsByOwnerAfter(userId, state, after, 20);
+        verify(bookingService, never()).getBookingsByOwner(Mockito.anyLong(), Mockito.any(BookingState.class),
+                Mockito.any(), Mockito.any());
+    }
+
     @SneakyThrows
     @Test
     void getBookingsByOwner_whenUserIdIsNotValid_thenResponseStatusNotFound() {
@@ -455,4 +587,62 @@ class BookingControllerIT {
 
         verify(bookingService, times(1)).approveBooking(userId, bookingId, approved);
     }
-}
\ No newline at end of file
+
+    private BookingView makeBookingView() {
+        LocalDateTime start = LocalDateTime.of(2024, 8, 1, 10, 30);
+
+        return new BookingView(1L, start, start.plusDays(1), BookingStatus.WAITING, new IdFieldView(1L),
+                new IdNameFieldView(1L, "name"));
+    }
+
+    @SneakyThrows
+    @Test
+    void approveBookings_whenValid_thenResponseStatusOkAndOutcomesInBody() {
+        Long userId = 1L;
+        List<BookingApprovalRequest> approvals = List.of(new BookingApprovalRequest(1L, true),
+                new BookingApprovalRequest(2L, false));
+        List<BookingApprovalView> outcomes = List.of(
+                new BookingApprovalView(1L, BookingApprovalOutcome.UPDATED, BookingStatus.APPROVED),
+                new BookingApprovalView(2L, BookingApprovalOutcome.NOT_FOUND, null));
+        when(bookingService.approveBookings(userId, approvals)).thenReturn(outcomes);
+
+        String result = mockMvc.perform(patch("/bookings/approve").header(USER, userId)
+                        .contentType("application/json")
+                        .content(objectMapper.writeValueAsString(approvals)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(outcomes), result);
+
+        verify(bookingService, times(1)).approveBookings(userId, approvals);
+        verify(bookingService, never()).approveBooking(Mockito.anyLong(), Mockito.anyLong(), Mockito.any());
+    }
+
+    @SneakyThrows
+    @Test
+    void approveBookings_whenApprovedFlagMissing_thenResponseStatusBadRequest() {
+        Long userId = 1L;
+
+        mockMvc.perform(patch("/bookings/approve").header(USER, userId)
+                        .contentType("application/json")
+                        .content("[{\"bookingId\":1}]"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).approveBookings(Mockito.anyLong(), Mockito.anyList());
+    }
+
+    @SneakyThrows
+    @Test
+    void approveBookings_whenApprovalsEmpty_thenResponseStatusBadRequest() {
+        Long userId = 1L;
+
+        mockMvc.perform(patch("/bookings/approve").header(USER, userId)
+                        .contentType("application/json")
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).approveBookings(Mockito.anyLong(), Mockito.anyList());
+    }
+}
@@ -11,7 +11,9 @@ import org.springframework.http.ResponseEntity;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.service.BookingService;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -44,10 +46,28 @@ class BookingControllerTest {
                 Mockito.anyInt())).thenReturn(expectedBookingsView);
 
         final ResponseEntity<List<BookingView>> actual = bookingController.getBookingsByBooker(1L,
-                BookingState.ALL, 0, 1);
+                BookingState.ALL, 0, 10, null);
 
         assertEquals(HttpStatus.OK, actual.getStatusCode());
         assertEquals(expectedBookingsView, actual.getBody());
+        assertFalse(actual.getHeaders().containsKey("X-Next-Cursor"));
+    }
+
+    @Test
+    void getBookingsByBooker_whenPageIsFull_thenResponseWithNextCursorHeader() {
+        final BookingView bookingView = new BookingView();
+        bookingView.setId(5L);
+        bookingView.setStart(LocalDateTime.of(2024, 8, 1, 10, 30));
+        final List<BookingView> expectedBookingsView = List.of(bookingView);
+        when(bookingService.getBookingsByBookerAfter(1L, BookingState.ALL, "cursor", 1))
+                .thenReturn(expectedBookingsView);
+
+        final ResponseEntity<List<BookingView>> actual = bookingController.getBookingsByBooker(1L,
+                BookingState.ALL, null, 1, "cursor");
+
+        assertEquals(HttpStatus.OK, actual.getStatusCode());
+        assertEquals(expectedBookingsView, actual.getBody());
+        assertEquals(BookingMapper.toCursorToken(bookingView), actual.getHeaders().getFirst("X-Next-Cursor"));
     }
 
     @Test
@@ -57,10 +77,28 @@ class BookingControllerTest {
                 Mockito.anyInt())).thenReturn(expectedBookingsView);
 
         final ResponseEntity<List<BookingView>> actual = bookingController.getBookingsByOwner(1L,
-                BookingState.ALL, 0, 1);
+                BookingState.ALL, 0, 10, null);
+
+        assertEquals(HttpStatus.OK, actual.getStatusCode());
+        assertEquals(expectedBookingsView, actual.getBody());
+        assertFalse(actual.getHeaders().containsKey("X-Next-Cursor"));
+    }
+
+    @Test
+    void getBookingsByOwner_whenPageIsFull_thenResponseWithNextCursorHeader() {
+        final BookingView bookingView = new BookingView();
+        bookingView.setId(5L);
+        bookingView.setStart(LocalDateTime.of(2024, 8, 1, 10, 30));
+        final List<BookingView> expectedBookingsView = List.of(bookingView);
+        when(bookingService.getBookingsByOwnerAfter(1L, BookingState.ALL, "cursor", 1))
+                .thenReturn(expectedBookingsView);
+
+        final ResponseEntity<List<BookingView>> actual = bookingController.getBookingsByOwner(1L,
+                BookingState.ALL, null, 1, "cursor");
 
         assertEquals(HttpStatus.OK, actual.getStatusCode());
         assertEquals(expectedBookingsView, actual.getBody());
+        assertEquals(BookingMapper.toCursorToken(bookingView), actual.getHeaders().getFirst("X-Next-Cursor"));
     }
 
     @Test
@@ -1,14 +1,17 @@
 package ru.practicum.shareit.booking.mapper;
 
 import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingShortView;
 import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exeption.BadRequestException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.shareitutils.dto.IdFieldView;
 import ru.practicum.shareit.shareitutils.dto.IdNameFieldView;
 import ru.practicum.shareit.user.model.User;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -77,4 +80,21 @@ class BookingMapperTest {
         assertNotNull(actual);
         assertEquals(bookingShortView, actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    void toBookingCursor_whenTokenCreatedFromBookingView_thenReturnSamePosition() {
+        BookingView bookingView = new BookingView();
+        bookingView.setId(7L);
+        bookingView.setStart(LocalDateTime.of(2024, 8, 1, 10, 30, 15));
+
+        BookingCursor actual = BookingMapper.toBookingCursor(BookingMapper.toCursorToken(bookingView));
+
+        assertEquals(new BookingCursor(bookingView.getStart(), 7L), actual);
+    }
+
+    @Test
+    void toBookingCursor_whenTokenIsNotValid_thenBadRequestExceptionThrown() {
+        assertThrows(BadRequestException.class, () -> BookingMapper.toBookingCursor("%%%"));
+        assertThrows(BadRequestException.class, () -> BookingMapper.toBookingCursor("bm90LWEtY3Vyc29y"));
+    }
+}
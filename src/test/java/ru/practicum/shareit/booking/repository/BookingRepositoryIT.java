@@ -1,24 +1,36 @@
 package ru.practicum.shareit.booking.repository;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.shareitutils.etag.ContentStamp;
+import ru.practicum.shareit.shareitutils.sql.SqlStatementRecorder;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
-@DataJpaTest
+@DataJpaTest(properties = SqlStatementRecorder.PROPERTY)
 class BookingRepositoryIT {
     @Autowired
     private UserRepository userRepository;
@@ -29,6 +41,9 @@ class BookingRepositoryIT {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     private Item item1;
     private Item item2;
     private Booking booking1;
@@ -44,54 +59,112 @@ class BookingRepositoryIT {
         booker = new User(null, "booker", "booker@email.com");
         userRepository.save(owner);
         userRepository.save(booker);
-        item1 = new Item(null, "name_1", "description_1", true, owner, null);
-        item2 = new Item(null, "name_2", "description_2", true, owner, null);
+        item1 = new Item(null, "name_1", "description_1", true, owner, null, null);
+        item2 = new Item(null, "name_2", "description_2", true, owner, null, null);
         itemRepository.save(item1);
         itemRepository.save(item2);
-        booking1 = new Booking(null, start, end, item1, booker, BookingStatus.WAITING);
-        booking2 = new Booking(null, start.plusDays(1), end.plusDays(1), item2, booker, BookingStatus.WAITING);
+        booking1 = new Booking(null, start, end, item1, booker, BookingStatus.WAITING, null);
+        booking2 = new Booking(null, start.plusDays(1), end.plusDays(1), item2, booker, BookingStatus.WAITING, null);
         bookingRepository.save(booking1);
         bookingRepository.save(booking2);
     }
 
     @Test
-    void getBookingsByBooker() {
-        List<Booking> bookings = bookingRepository.getBookingsByBooker(booker.getId(), BookingState.ALL.name());
+    void findBookingViews_whenBookerAndStateAll_thenReturnAllBookerBookings() {
+        List<BookingView> bookings = bookingRepository.findBookingViews(
+                BookingSpecifications.byBooker(booker.getId())
+                        .and(BookingSpecifications.byState(BookingState.ALL, LocalDateTime.now())), Pageable.unpaged());
 
         assertNotNull(bookings);
         assertEquals(2, bookings.size());
-        assertEquals(booking2, bookings.get(0));
-        assertEquals(booking1, bookings.get(1));
+        assertEquals(BookingMapper.toBookingView(booking2), bookings.get(0));
+        assertEquals(BookingMapper.toBookingView(booking1), bookings.get(1));
     }
 
     @Test
-    void getBookingsByBookerPageable() {
-        List<Booking> bookings = bookingRepository.getBookingsByBookerPageable(booker.getId(), BookingState.ALL.name(),
+    void findBookingViews_whenBookerAndPageable_thenReturnPage() {
+        List<BookingView> bookings = bookingRepository.findBookingViews(
+                BookingSpecifications.byBooker(booker.getId())
+                        .and(BookingSpecifications.byState(BookingState.ALL, LocalDateTime.now())),
                 PageRequest.of(0, 1));
 
         assertNotNull(bookings);
         assertEquals(1, bookings.size());
-        assertEquals(booking2, bookings.get(0));
+        assertEquals(BookingMapper.toBookingView(booking2), bookings.get(0));
     }
 
     @Test
-    void getBookingsByOwner() {
-        List<Booking> bookings = bookingRepository.getBookingsByOwner(owner.getId(), BookingState.ALL.name());
+    void findBookingViews_whenOwnerAndStateAll_thenReturnAllOwnerBookings() {
+        List<BookingView> bookings = bookingRepository.findBookingViews(
+                BookingSpecifications.byItemOwner(owner.getId())
+                        .and(BookingSpecifications.byState(BookingState.ALL, LocalDateTime.now())), Pageable.unpaged());
 
         assertNotNull(bookings);
         assertEquals(2, bookings.size());
-        assertEquals(booking2, bookings.get(0));
-        assertEquals(booking1, bookings.get(1));
+        assertEquals(BookingMapper.toBookingView(booking2), bookings.get(0));
+        assertEquals(BookingMapper.toBookingView(booking1), bookings.get(1));
     }
 
     @Test
-    void getBookingsByOwnerPageable() {
-        List<Booking> bookings = bookingRepository.getBookingsByOwnerPageable(owner.getId(), BookingState.ALL.name(),
+    void findBookingViews_whenOwnerAndPageable_thenReturnPage() {
+        List<BookingView> bookings = bookingRepository.findBookingViews(
+                BookingSpecifications.byItemOwner(owner.getId())
+                        .and(BookingSpecifications.byState(BookingState.ALL, LocalDateTime.now())),
                 PageRequest.of(0, 1));
 
         assertNotNull(bookings);
         assertEquals(1, bookings.size());
-        assertEquals(booking2, bookings.get(0));
+        assertEquals(BookingMapper.toBookingView(booking2), bookings.get(0));
+    }
+
+    @Test
+    void findBookingViews_whenStateIsPastCurrentOrFuture_thenReturnBookingsByDates() {
+        LocalDateTime dateTime = LocalDateTime.of(2024, 8, 2, 18, 0);
+
+        List<BookingView> past = bookingRepository.findBookingViews(
+                BookingSpecifications.byBooker(booker.getId())
+                        .and(BookingSpecifications.byState(BookingState.PAST, dateTime)), Pageable.unpaged());
+        List<BookingView> current = bookingRepository.findBookingViews(
+                BookingSpecifications.byBooker(booker.getId())
+                        .and(BookingSpecifications.byState(BookingState.CURRENT, dateTime)), Pageable.unpaged());
+        List<BookingView> future = bookingRepository.findBookingViews(
+                BookingSpecifications.byBooker(booker.getId())
+                        .and(BookingSpecifications.byState(BookingState.FUTURE, dateTime)), Pageable.unpaged());
+
+        assertEquals(BookingMapper.toBookingView(List.of(booking1)), past);
+        assertEquals(BookingMapper.toBookingView(List.of(booking2)), current);
+        assertEquals(0, future.size());
+    }
+
+    @Test
+    void findBookingViews_whenStateIsWaitingOrRejected_thenReturnBookingsByStatus() {
+        booking1.setStatus(BookingStatus.REJECTED);
+        bookingRepository.save(booking1);
+
+        List<BookingView> waiting = bookingRepository.findBookingViews(
+                BookingSpecifications.byItemOwner(owner.getId())
+                        .and(BookingSpecifications.byState(BookingState.WAITING, LocalDateTime.now())),
+                Pageable.unpaged());
+        List<BookingView> rejected = bookingRepository.findBookingViews(
+                BookingSpecifications.byItemOwner(owner.getId())
+                        .and(BookingSpecifications.byState(BookingState.REJECTED, LocalDateTime.now())),
+                Pageable.unpaged());
+
+        assertEquals(BookingMapper.toBookingView(List.of(booking2)), waiting);
+        assertEquals(BookingMapper.toBookingView(List.of(booking1)), rejected);
+    }
+
+    @Test
+    void findBookingViews_whenAfterCursor_thenReturnBookingsAfterCursorPosition() {
+        Booking sameStart = bookingRepository.save(new Booking(null, booking2.getStartDt(), booking2.getEndDt(),
+                item1, booker, BookingStatus.WAITING, null));
+        BookingCursor cursor = new BookingCursor(sameStart.getStartDt(), sameStart.getId());
+
+        List<BookingView> bookings = bookingRepository.findBookingViews(
+                BookingSpecifications.byBooker(booker.getId())
+                        .and(BookingSpecifications.after(cursor)), PageRequest.of(0, 10));
+
+        assertEquals(BookingMapper.toBookingView(List.of(booking2, booking1)), bookings);
     }
 
     @Test
@@ -114,6 +187,78 @@ class BookingRepositoryIT {
         assertEquals(2, bookings.size());
     }
 
+    @Test
+    void findLastBookingByItemIds_whenSeveralBookingsPerItem_thenReturnOnlyLatestEndedPerItem() {
+        Booking later = bookingRepository.save(new Booking(null, booking1.getStartDt().plusDays(3),
+                booking1.getEndDt().plusDays(3), item1, booker, BookingStatus.APPROVED, null));
+        bookingRepository.save(new Booking(null, booking1.getStartDt().plusDays(5),
+                booking1.getEndDt().plusDays(5), item1, booker, BookingStatus.REJECTED, null));
+
+        LocalDateTime currentDateTime = LocalDateTime.of(2024, 8, 10, 10, 30);
+        List<Booking> bookings = bookingRepository.findLastBookingByItemIds(List.of(item1.getId(), item2.getId()),
+                currentDateTime);
+
+        assertEquals(2, bookings.size());
+        assertTrue(bookings.contains(later));
+        assertTrue(bookings.contains(booking2));
+    }
+
+    @Test
+    void findNextBookingByItemIds_whenSeveralBookingsPerItem_thenReturnOnlyNearestPerItem() {
+        bookingRepository.save(new Booking(null, booking1.getStartDt().plusDays(3),
+                booking1.getEndDt().plusDays(3), item1, booker, BookingStatus.APPROVED, null));
+
+        LocalDateTime currentDateTime = LocalDateTime.of(2024, 7, 10, 10, 30);
+        List<Booking> bookings = bookingRepository.findNextBookingByItemIds(List.of(item1.getId(), item2.getId()),
+                currentDateTime);
+
+        assertEquals(2, bookings.size());
+        assertTrue(bookings.contains(booking1));
+        assertTrue(bookings.contains(booking2));
+    }
+
+    @Test
+    void existsOverlappingBooking_whenPeriodsIntersect_thenReturnTrue() {
+        assertTrue(bookingRepository.existsOverlappingBooking(item1.getId(),
+                booking1.getStartDt().minusHours(1), booking1.getStartDt().plusHours(1)));
+        assertTrue(bookingRepository.existsOverlappingBooking(item1.getId(),
+                booking1.getStartDt().plusHours(1), booking1.getEndDt().minusHours(1)));
+    }
+
+    @Test
+    void existsOverlappingBooking_whenPeriodsAdjacentOrOtherItem_thenReturnFalse() {
+        assertFalse(bookingRepository.existsOverlappingBooking(item1.getId(),
+                booking1.getEndDt(), booking1.getEndDt().plusDays(1)));
+        assertFalse(bookingRepository.existsOverlappingBooking(item1.getId(),
+                booking1.getStartDt().minusDays(1), booking1.getStartDt()));
+        assertFalse(bookingRepository.existsOverlappingBooking(item2.getId(),
+                booking1.getStartDt(), booking1.getEndDt()));
+    }
+
+    @Test
+    void existsOverlappingBooking_whenItemHasEarlierBookings_thenOnlyLatestStartedBeforeEndDecides() {
+        Booking approved = bookingRepository.save(new Booking(null, booking1.getEndDt().plusDays(1),
+                booking1.getEndDt().plusDays(3), item1, booker, BookingStatus.APPROVED, null));
+        bookingRepository.save(new Booking(null, approved.getEndDt().plusDays(1), approved.getEndDt().plusDays(2),
+                item1, booker, BookingStatus.WAITING, null));
+
+        assertTrue(bookingRepository.existsOverlappingBooking(item1.getId(),
+                approved.getEndDt().minusHours(1), approved.getEndDt().plusHours(1)));
+        assertFalse(bookingRepository.existsOverlappingBooking(item1.getId(),
+                approved.getEndDt(), approved.getEndDt().plusDays(1)));
+        assertTrue(bookingRepository.existsOverlappingBooking(item1.getId(),
+                booking1.getStartDt().plusHours(1), booking1.getStartDt().plusHours(2)));
+    }
+
+    @Test
+    void existsOverlappingBooking_whenOverlappingBookingRejected_thenReturnFalse() {
+        booking1.setStatus(BookingStatus.REJECTED);
+        bookingRepository.save(booking1);
+
+        assertFalse(bookingRepository.existsOverlappingBooking(item1.getId(),
+                booking1.getStartDt(), booking1.getEndDt()));
+    }
+
     @Test
     void findBookingForAllowCommentPageable_whenBookingNotApproved_thenReturnEmptyCollection() {
         LocalDateTime currentDateTime = LocalDateTime.of(2024, 8, 10, 10, 30);
@@ -136,4 +281,90 @@ class BookingRepositoryIT {
         assertEquals(1, bookings.size());
         assertEquals(booking1, bookings.get(0));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findBookingsByIdsAndItemOwnerId_whenUserNotOwner_thenReturnOnlyOwnedBookings() {
+        assertEquals(2, bookingRepository.findBookingsByIdsAndItemOwnerId(
+                List.of(booking1.getId(), booking2.getId()), owner.getId()).size());
+        assertEquals(0, bookingRepository.findBookingsByIdsAndItemOwnerId(
+                List.of(booking1.getId(), booking2.getId()), booker.getId()).size());
+    }
+
+    @Test
+    void updateWaitingBookingsStatus_whenSomeBookingsNotWaiting_thenUpdateOnlyWaiting() {
+        booking2.setStatus(BookingStatus.REJECTED);
+        bookingRepository.save(booking2);
+
+        Set<Long> updated = bookingRepository.updateWaitingBookingsStatus(List.of(booking1, booking2),
+                Map.of(booking1.getId(), BookingStatus.APPROVED, booking2.getId(), BookingStatus.APPROVED));
+
+        assertEquals(Set.of(booking1.getId()), updated);
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(booking1.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.REJECTED, bookingRepository.findById(booking2.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updateWaitingBookingsStatus_whenVersionChangedConcurrently_thenBookingNotReportedAsUpdated() {
+        Booking stale = new Booking(booking1.getId(), booking1.getStartDt(), booking1.getEndDt(), booking1.getItem(),
+                booking1.getBooker(), BookingStatus.WAITING, booking1.getVersion());
+        bookingRepository.updateWaitingBookingStatus(booking1.getId(), booking1.getVersion(), BookingStatus.APPROVED);
+
+        Set<Long> updated = bookingRepository.updateWaitingBookingsStatus(List.of(stale, booking2),
+                Map.of(booking1.getId(), BookingStatus.APPROVED, booking2.getId(), BookingStatus.REJECTED));
+
+        assertEquals(Set.of(booking2.getId()), updated);
+        assertEquals(BookingStatus.REJECTED, bookingRepository.findById(booking2.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void updateWaitingBookingStatus_whenVersionOutdated_thenNothingUpdated() {
+        Long version = booking1.getVersion();
+
+        assertEquals(1, bookingRepository.updateWaitingBookingStatus(booking1.getId(), version,
+                BookingStatus.APPROVED));
+        assertEquals(0, bookingRepository.updateWaitingBookingStatus(booking1.getId(), version,
+                BookingStatus.REJECTED));
+
+        Booking actual = bookingRepository.findById(booking1.getId()).orElseThrow();
+
+        assertEquals(BookingStatus.APPROVED, actual.getStatus());
+        assertEquals(version + 1, actual.getVersion());
+    }
+
+    @Test
+    void findBookingViews_whenInvoked_thenReturnViewsWithSingleStatement() {
+        List<BookingView> expected = BookingMapper.toBookingView(List.of(booking2, booking1));
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementRecorder.clear();
+
+        List<BookingView> bookingViews = bookingRepository.findBookingViews(
+                BookingSpecifications.byItemOwner(owner.getId())
+                        .and(BookingSpecifications.byState(BookingState.ALL, LocalDateTime.now())),
+                Pageable.unpaged());
+
+        assertEquals(expected, bookingViews);
+        assertEquals(1, SqlStatementRecorder.count());
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void findBookingStampByItemIds_whenBookingStartsOrChanges_thenRevisionGrows() {
+        List<Long> itemIds = List.of(item1.getId(), item2.getId());
+        LocalDateTime beforeStart = booking1.getStartDt().minusHours(1);
+
+        ContentStamp beforeAll = bookingRepository.findBookingStampByItemIds(itemIds, beforeStart);
+        ContentStamp afterFirstStart = bookingRepository.findBookingStampByItemIds(itemIds,
+                booking1.getStartDt().plusHours(1));
+
+        assertEquals(new ContentStamp(2L, booking2.getId(), 0L), beforeAll);
+        assertEquals(new ContentStamp(2L, booking2.getId(), 1L), afterFirstStart);
+
+        bookingRepository.updateWaitingBookingStatus(booking2.getId(), booking2.getVersion(), BookingStatus.APPROVED);
+
+        assertEquals(new ContentStamp(2L, booking2.getId(), 1L),
+                bookingRepository.findBookingStampByItemIds(itemIds, beforeStart));
+        assertEquals(new ContentStamp(0L, 0L, 0L),
+                bookingRepository.findBookingStampByItemIds(List.of(-1L), beforeStart));
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.shareitutils.sql.SqlStatementRecorder;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверка того, что выборки бронирований по состоянию на 1 000 000 бронирований идут по индексу на user_id,
+ * а не полным просмотром таблицы. План строится для SQL, который Hibernate действительно отправил в базу данных
+ * при вызове {@link BookingRepository#findBookingViews}, как это делает сервис.
+ * H2 в отличие от PostgreSQL сам создаёт одноколоночный индекс под внешний ключ fk_booking_booker_user
+ * и для выборки не покрываемых индексом колонок может предпочесть его составному индексу с сортировкой
+ * результата, поэтому допускаются оба индекса.
+ * Данные вставляются один раз на класс вне транзакции теста: откат миллиона строк после каждого
+ * состояния держал бы весь журнал отмены в памяти.
+ * Запуск: mvn test -P benchmark
+ */
+@DataJpaTest(properties = SqlStatementRecorder.PROPERTY)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class BookingStateQueryBenchmarkTest {
+    private static final int USERS = 1_000;
+    private static final int ITEMS = 10_000;
+    private static final int BOOKINGS = 1_000_000;
+    private static final int BATCH_SIZE = 10_000;
+    private static final Pattern BOOKER_INDEX_LOOKUP = Pattern.compile(
+            "PUBLIC\\.(IDX_BOOKINGS_BOOKER_\\w+|FK_BOOKING_BOOKER_USER_\\w+):[^*]*USER_ID =");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @BeforeAll
+    void setUp() {
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++) {
+            users.add(new Object[]{id, "user_" + id, "user_" + id + "@email.com"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (user_id, user_name, user_email) values (?, ?, ?)", users);
+
+        List<Object[]> items = new ArrayList<>();
+        for (long id = 1; id <= ITEMS; id++) {
+            items.add(new Object[]{id, "item_" + id, "description_" + id, true, id % USERS + 1});
+        }
+        jdbcTemplate.batchUpdate("insert into items (item_id, item_name, item_description, item_is_available, " +
+                "user_id) values (?, ?, ?, ?, ?)", items);
+
+        LocalDateTime base = LocalDateTime.of(2020, 1, 1, 0, 0);
+        BookingStatus[] statuses = BookingStatus.values();
+        List<Object[]> bookings = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= BOOKINGS; id++) {
+            LocalDateTime start = base.plusHours(id * 7 % 80_000);
+            bookings.add(new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(2)),
+                    id % ITEMS + 1, id % USERS + 1, statuses[(int) (id % statuses.length)].name()});
+
+            if (bookings.size() == BATCH_SIZE) {
+                insertBookings(bookings);
+                bookings.clear();
+            }
+        }
+        insertBookings(bookings);
+    }
+
+    @AfterAll
+    void tearDown() {
+        jdbcTemplate.update("truncate table bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void findBookingViews_whenOneMillionBookings_thenBookerQueryUsesUserIndex(BookingState state) {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+        SqlStatementRecorder.clear();
+        long startNanos = System.nanoTime();
+        int rows = bookingRepository.findBookingViews(BookingSpecifications.byBooker(1L)
+                .and(BookingSpecifications.byState(state, now)), PageRequest.of(0, 20)).size();
+        long elapsedMicros = (System.nanoTime() - startNanos) / 1_000;
+
+        String sql = SqlStatementRecorder.getStatements().stream()
+                .filter(statement -> statement.contains("from bookings"))
+                .findFirst()
+                .orElseThrow();
+        String plan = explain(sql);
+
+        System.out.printf("state=%s rows=%d time=%dus plan=%s%n", state, rows, elapsedMicros, plan);
+        assertTrue(plan != null && BOOKER_INDEX_LOOKUP.matcher(plan).find(), plan);
+    }
+
+    private void insertBookings(List<Object[]> bookings) {
+        jdbcTemplate.batchUpdate("insert into bookings (booking_id, booking_startdt, booking_enddt, item_id, " +
+                "user_id, booking_status) values (?, ?, ?, ?, ?, ?)", bookings);
+    }
+
+    /**
+     * План запроса, который Hibernate отправил в базу данных. Выбор индекса в H2 не зависит от значений
+     * параметров, поэтому параметры связываются с null.
+     */
+    private String explain(String sql) {
+        return jdbcTemplate.query("explain " + sql, statement -> {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+
+            for (int i = 1; i <= parameters; i++) {
+                statement.setNull(i, Types.NULL);
+            }
+        }, resultSet -> resultSet.next() ? resultSet.getString(1) : null);
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнение поиска последнего и следующего бронирования вещей: прежний перебор в памяти
+ * против оконных запросов на 500 вещах и 10 000 бронированиях.
+ * Запуск: mvn test -P benchmark
+ */
+@DataJpaTest
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class ItemBookingInfoBenchmarkTest {
+    private static final int USERS = 100;
+    private static final int ITEMS = 500;
+    private static final int BOOKINGS = 10_000;
+    private static final int ITERATIONS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final LocalDateTime now = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    private List<Long> itemIds;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> users = new ArrayList<>();
+        for (long id = 1; id <= USERS; id++) {
+            users.add(new Object[]{id, "user_" + id, "user_" + id + "@email.com"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (user_id, user_name, user_email) values (?, ?, ?)", users);
+
+        List<Object[]> items = new ArrayList<>();
+        for (long id = 1; id <= ITEMS; id++) {
+            items.add(new Object[]{id, "item_" + id, "description_" + id, true, 1L});
+        }
+        jdbcTemplate.batchUpdate("insert into items (item_id, item_name, item_description, item_is_available, " +
+                "user_id) values (?, ?, ?, ?, ?)", items);
+
+        LocalDateTime base = LocalDateTime.of(2023, 1, 1, 0, 0);
+        BookingStatus[] statuses = BookingStatus.values();
+        List<Object[]> bookings = new ArrayList<>();
+        for (long id = 1; id <= BOOKINGS; id++) {
+            LocalDateTime start = base.plusHours(id * 13 % 17_000);
+            bookings.add(new Object[]{id, Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)),
+                    id % ITEMS + 1, id % (USERS - 1) + 2, statuses[(int) (id % statuses.length)].name()});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (booking_id, booking_startdt, booking_enddt, item_id, " +
+                "user_id, booking_status) values (?, ?, ?, ?, ?, ?)", bookings);
+
+        itemIds = LongStream.rangeClosed(1, ITEMS).boxed().collect(Collectors.toList());
+    }
+
+    @Test
+    void findLastAndNextBooking_whenFiveHundredItems_thenWindowQueriesMatchInMemoryMatching() {
+        Map<Long, Long> expected = inMemoryMatching();
+        Map<Long, Long> actual = windowQueries();
+        assertEquals(expected, actual);
+
+        long inMemoryNanos = 0;
+        long windowNanos = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long startNanos = System.nanoTime();
+            inMemoryMatching();
+            inMemoryNanos += System.nanoTime() - startNanos;
+
+            startNanos = System.nanoTime();
+            windowQueries();
+            windowNanos += System.nanoTime() - startNanos;
+        }
+
+        System.out.printf("items=%d bookings=%d inMemory=%dus window=%dus%n", ITEMS, BOOKINGS,
+                inMemoryNanos / ITERATIONS / 1_000, windowNanos / ITERATIONS / 1_000);
+    }
+
+    /**
+     * Прежняя реализация: все бронирования вещей и поиск нужного перебором для каждой вещи.
+     */
+    private Map<Long, Long> inMemoryMatching() {
+        entityManager.clear();
+        List<Booking> lastBookings = entityManager.getEntityManager().createQuery("select b from Booking as b " +
+                        "where b.item.id in (?1) and b.startDt < ?2 and b.status != 'REJECTED'", Booking.class)
+                .setParameter(1, itemIds).setParameter(2, now).getResultList();
+        List<Booking> nextBookings = entityManager.getEntityManager().createQuery("select b from Booking as b " +
+                        "where b.item.id in (?1) and b.startDt > ?2 and b.status != 'REJECTED'", Booking.class)
+                .setParameter(1, itemIds).setParameter(2, now).getResultList();
+
+        Map<Long, Long> result = new HashMap<>();
+        for (Long itemId : itemIds) {
+            lastBookings.stream()
+                    .filter(booking -> itemId.equals(booking.getItem().getId()))
+                    .max(Comparator.comparing(Booking::getEndDt).thenComparing(Booking::getId))
+                    .ifPresent(booking -> result.put(itemId, booking.getId()));
+            nextBookings.stream()
+                    .filter(booking -> itemId.equals(booking.getItem().getId()))
+                    .min(Comparator.comparing(Booking::getStartDt).thenComparing(Booking::getId))
+                    .ifPresent(booking -> result.put(-itemId, booking.getId()));
+        }
+
+        return result;
+    }
+
+    private Map<Long, Long> windowQueries() {
+        entityManager.clear();
+        Map<Long, Booking> lastBookings = bookingRepository.findLastBookingByItemIds(itemIds, now).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity()));
+        Map<Long, Booking> nextBookings = bookingRepository.findNextBookingByItemIds(itemIds, now).stream()
+                .collect(Collectors.toMap(booking -> booking.getItem().getId(), Function.identity()));
+
+        Map<Long, Long> result = new HashMap<>();
+        for (Long itemId : itemIds) {
+            if (lastBookings.containsKey(itemId)) {
+                result.put(itemId, lastBookings.get(itemId).getId());
+            }
+            if (nextBookings.containsKey(itemId)) {
+                result.put(-itemId, nextBookings.get(itemId).getId());
+            }
+        }
+
+        return result;
+    }
+}
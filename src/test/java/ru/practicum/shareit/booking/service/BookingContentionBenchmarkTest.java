@@ -0,0 +1,124 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.dto.BookingRequest;
+import ru.practicum.shareit.exeption.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Нагрузка на одну вещь конкурентными бронированиями: пропускная способность, задержки
+ * и отсутствие пересекающихся активных бронирований после прогона.
+ * Запуск: mvn test -P benchmark
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:contention;LOCK_TIMEOUT=30000")
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class BookingContentionBenchmarkTest {
+    private static final int THREADS = 32;
+    private static final int REQUESTS_PER_THREAD = 200;
+    private static final int SLOTS = 2_000;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void create_whenOneItemHammeredFromManyThreads_thenNoOverlappingBookings() throws Exception {
+        User owner = userRepository.save(new User(null, "owner", "contention_owner@email.com"));
+        Item item = itemRepository.save(new Item(null, "name", "description", true, owner, null, null));
+        List<User> bookers = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(new User(null, "booker_" + i, "contention_booker_" + i + "@email.com")));
+        }
+
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        long[] latencies = new long[THREADS * REQUESTS_PER_THREAD];
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            int threadIndex = thread;
+            futures.add(executor.submit(() -> {
+                ready.await();
+
+                for (int request = 0; request < REQUESTS_PER_THREAD; request++) {
+                    LocalDateTime start = base.plusHours(ThreadLocalRandom.current().nextInt(SLOTS));
+                    LocalDateTime end = start.plusHours(1 + ThreadLocalRandom.current().nextInt(3));
+                    long startNanos = System.nanoTime();
+
+                    try {
+                        bookingService.create(bookers.get(threadIndex).getId(),
+                                new BookingRequest(item.getId(), start, end));
+                        created.incrementAndGet();
+                    } catch (ConflictException exception) {
+                        conflicts.incrementAndGet();
+                    }
+
+                    latencies[threadIndex * REQUESTS_PER_THREAD + request] = System.nanoTime() - startNanos;
+                }
+
+                return null;
+            }));
+        }
+
+        long startNanos = System.nanoTime();
+        ready.countDown();
+
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.MINUTES);
+        }
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        executor.shutdown();
+        Arrays.sort(latencies);
+
+        Integer overlapping = jdbcTemplate.queryForObject("select count(*) from bookings a " +
+                "join bookings b on a.item_id = b.item_id and a.booking_id < b.booking_id " +
+                "where a.booking_startdt < b.booking_enddt and a.booking_enddt > b.booking_startdt " +
+                "and a.booking_status in ('WAITING', 'APPROVED') and b.booking_status in ('WAITING', 'APPROVED')",
+                Integer.class);
+
+        System.out.printf("threads=%d requests=%d created=%d conflicts=%d time=%dms throughput=%.0f/s " +
+                        "p50=%dus p99=%dus max=%dus%n",
+                THREADS, latencies.length, created.get(), conflicts.get(), elapsedMillis,
+                latencies.length * 1000.0 / Math.max(elapsedMillis, 1),
+                latencies[latencies.length / 2] / 1_000, latencies[latencies.length * 99 / 100] / 1_000,
+                latencies[latencies.length - 1] / 1_000);
+
+        assertEquals(THREADS * REQUESTS_PER_THREAD, created.get() + conflicts.get());
+        assertEquals(0, overlapping);
+    }
+}
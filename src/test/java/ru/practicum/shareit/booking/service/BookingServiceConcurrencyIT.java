@@ -0,0 +1,154 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingRequest;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.exeption.BadRequestException;
+import ru.practicum.shareit.exeption.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.shareitutils.sql.SqlStatementRecorder;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest(properties = SqlStatementRecorder.PROPERTY)
+class BookingServiceConcurrencyIT {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private Item item;
+    private final List<User> bookers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "concurrency_owner@email.com"));
+        item = itemRepository.save(new Item(null, "name", "description", true, owner, null, null));
+
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(new User(null, "booker_" + i, "concurrency_booker_" + i + "@email.com")));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void create_whenSamePeriodBookedConcurrently_thenOnlyOneBookingCreated() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (User booker : bookers) {
+            futures.add(executor.submit(() -> {
+                ready.await();
+
+                try {
+                    bookingService.create(booker.getId(), new BookingRequest(item.getId(), start, start.plusDays(1)));
+                    created.incrementAndGet();
+                } catch (ConflictException exception) {
+                    conflicts.incrementAndGet();
+                }
+
+                return null;
+            }));
+        }
+
+        ready.countDown();
+
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        executor.shutdown();
+
+        assertEquals(1, created.get());
+        assertEquals(THREADS - 1, conflicts.get());
+        assertEquals(1, bookingRepository.count());
+    }
+
+    @Test
+    void approveBooking_whenApprovedConcurrently_thenOnlyOneRequestSucceedsWithoutRowLocks() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking = bookingRepository.save(new Booking(null, start, start.plusDays(1), item, bookers.get(0),
+                BookingStatus.WAITING, null));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        ConcurrentLinkedQueue<String> statements = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < THREADS; i++) {
+            boolean approve = i % 2 == 0;
+            futures.add(executor.submit(() -> {
+                ready.await();
+                SqlStatementRecorder.clear();
+
+                try {
+                    bookingService.approveBooking(owner.getId(), booking.getId(), approve);
+                    approved.incrementAndGet();
+                } catch (ConflictException | BadRequestException exception) {
+                    rejected.incrementAndGet();
+                } finally {
+                    statements.addAll(SqlStatementRecorder.getStatements());
+                }
+
+                return null;
+            }));
+        }
+
+        ready.countDown();
+
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+
+        executor.shutdown();
+
+        Booking actual = bookingRepository.findById(booking.getId()).orElseThrow();
+
+        assertEquals(1, approved.get());
+        assertEquals(THREADS - 1, rejected.get());
+        assertEquals(1L, actual.getVersion());
+        assertFalse(BookingStatus.WAITING.equals(actual.getStatus()));
+        assertFalse(statements.stream().anyMatch(sql -> sql.toLowerCase().contains(" for update")));
+    }
+}
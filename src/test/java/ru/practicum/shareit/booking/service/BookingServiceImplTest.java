@@ -7,21 +7,29 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.BookingApprovalOutcome;
 import ru.practicum.shareit.booking.BookingState;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingApprovalRequest;
+import ru.practicum.shareit.booking.dto.BookingApprovalView;
 import ru.practicum.shareit.booking.dto.BookingRequest;
 import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exeption.BadRequestException;
+import ru.practicum.shareit.exeption.ConflictException;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.availability.ItemAvailabilityCache;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.shareitutils.pageable.OffsetPageRequest;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.never;
@@ -36,7 +44,9 @@ class BookingServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
     @Mock
-    private UserRepository userRepository;
+    private UserLookup userLookup;
+    @Mock
+    private ItemAvailabilityCache itemAvailabilityCache;
 
     @InjectMocks
     private BookingServiceImpl bookingService;
@@ -54,7 +64,7 @@ class BookingServiceImplTest {
         booking.setItem(item);
         booking.setBooker(booker);
         final BookingView bookingView = BookingMapper.toBookingView(booking);
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(owner));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(owner));
         when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(booking));
         when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(item));
 
@@ -63,14 +73,14 @@ class BookingServiceImplTest {
         assertNotNull(actual);
         assertEquals(bookingView, actual);
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(bookingRepository, times(1)).findById(Mockito.anyLong());
         verify(itemRepository, times(1)).findById(Mockito.anyLong());
     }
 
     @Test
     void getBooking_whenInvalidUserId_thenNotFoundExceptionThrown() {
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -81,14 +91,14 @@ class BookingServiceImplTest {
         assertEquals("Пользователь с идентификатором 1 не найден",
                 exception.getMessage());
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(bookingRepository, never()).findById(Mockito.anyLong());
         verify(itemRepository, never()).findById(Mockito.anyLong());
     }
 
     @Test
     void getBooking_whenInvalidBookingId_thenNotFoundExceptionThrown() {
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
         when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
@@ -100,7 +110,7 @@ class BookingServiceImplTest {
         assertEquals("Бронирование с идентификатором 1 не найдено",
                 exception.getMessage());
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(bookingRepository, times(1)).findById(Mockito.anyLong());
         verify(itemRepository, never()).findById(Mockito.anyLong());
     }
@@ -119,7 +129,7 @@ class BookingServiceImplTest {
         final Booking booking = new Booking();
         booking.setItem(item);
         booking.setBooker(booker);
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(user));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(user));
         when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(booking));
         when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(item));
 
@@ -132,14 +142,14 @@ class BookingServiceImplTest {
         assertEquals("Пользователю не доступна информация о бронировании с" +
                         " идентификатором 1", exception.getMessage());
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(bookingRepository, times(1)).findById(Mockito.anyLong());
         verify(itemRepository, times(1)).findById(Mockito.anyLong());
     }
 
     @Test
     void getBookingsByBooker_whenInvalidUserId_thenNotFoundExceptionThrown() {
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -150,11 +160,8 @@ class BookingServiceImplTest {
         assertEquals("Пользователь с идентификатором 1 не найден",
                 exception.getMessage());
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
-        verify(bookingRepository, never()).getBookingsByBooker(Mockito.anyLong(),
-                Mockito.anyString());
-        verify(bookingRepository, never()).getBookingsByBookerPageable(Mockito.anyLong(),
-                Mockito.anyString(), Mockito.any(Pageable.class));
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
+        verify(bookingRepository, never()).findBookingViews(Mockito.any(), Mockito.any(Pageable.class));
     }
 
     @Test
@@ -167,11 +174,10 @@ class BookingServiceImplTest {
         final Booking booking = new Booking();
         booking.setBooker(booker);
         booking.setItem(item);
-        final List<Booking> bookings = List.of(booking);
         final List<BookingView> bookingViews = List.of(BookingMapper.toBookingView(booking));
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
-        when(bookingRepository.getBookingsByBooker(Mockito.anyLong(), Mockito.anyString()))
-                .thenReturn(bookings);
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
+        when(bookingRepository.findBookingViews(Mockito.any(), Mockito.any(Pageable.class)))
+                .thenReturn(bookingViews);
 
         final List<BookingView> actual = bookingService.getBookingsByBooker(1L, BookingState.ALL,
                 null, null);
@@ -179,11 +185,9 @@ class BookingServiceImplTest {
         assertNotNull(actual);
         assertEquals(bookingViews, actual);
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(bookingRepository, times(1))
-                .getBookingsByBooker(Mockito.anyLong(), Mockito.anyString());
-        verify(bookingRepository, never()).getBookingsByBookerPageable(Mockito.anyLong(),
-                Mockito.anyString(), Mockito.any(Pageable.class));
+                .findBookingViews(Mockito.any(), Mockito.eq(Pageable.unpaged()));
     }
 
     @Test
@@ -196,11 +200,10 @@ class BookingServiceImplTest {
         final Booking booking = new Booking();
         booking.setBooker(booker);
         booking.setItem(item);
-        final List<Booking> bookings = List.of(booking);
         final List<BookingView> bookingViews = List.of(BookingMapper.toBookingView(booking));
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
-        when(bookingRepository.getBookingsByBookerPageable(Mockito.anyLong(), Mockito.anyString(),
-                Mockito.any(Pageable.class))).thenReturn(bookings);
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
+        when(bookingRepository.findBookingViews(Mockito.any(), Mockito.any(Pageable.class)))
+                .thenReturn(bookingViews);
 
         final List<BookingView> actual = bookingService.getBookingsByBooker(1L, BookingState.ALL,
                 0, 1);
@@ -208,17 +211,61 @@ class BookingServiceImplTest {
         assertNotNull(actual);
         assertEquals(bookingViews, actual);
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
-        verify(bookingRepository, never())
-                .getBookingsByBooker(Mockito.anyLong(), Mockito.anyString());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
+        verify(bookingRepository, times(1))
+                .findBookingViews(Mockito.any(), Mockito.eq(OffsetPageRequest.of(0, 1)));
+    }
+
+    @Test
+    void getBookingsByBooker_whenFromIsNotMultipleOfSize_thenUseExactOffset() {
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
+        when(bookingRepository.findBookingViews(Mockito.any(), Mockito.any(Pageable.class)))
+                .thenReturn(List.of());
+
+        bookingService.getBookingsByBooker(1L, BookingState.ALL, 3, 2);
+
         verify(bookingRepository, times(1))
-                .getBookingsByBookerPageable(Mockito.anyLong(), Mockito.anyString(),
-                        Mockito.any(Pageable.class));
+                .findBookingViews(Mockito.any(), Mockito.eq(OffsetPageRequest.of(3, 2)));
+    }
+
+    @Test
+    void getBookingsByBookerAfter_whenInvoked_thenReturnFirstPageAfterCursor() {
+        final Item item = new Item();
+        item.setId(1L);
+        final User booker = new User();
+        booker.setId(1L);
+        final Booking booking = new Booking();
+        booking.setBooker(booker);
+        booking.setItem(item);
+        final BookingView cursorView = new BookingView();
+        cursorView.setId(10L);
+        cursorView.setStart(LocalDateTime.of(2024, 8, 1, 10, 30));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
+        when(bookingRepository.findBookingViews(Mockito.any(), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(BookingMapper.toBookingView(booking)));
+
+        final List<BookingView> actual = bookingService.getBookingsByBookerAfter(1L, BookingState.ALL,
+                BookingMapper.toCursorToken(cursorView), 5);
+
+        assertEquals(List.of(BookingMapper.toBookingView(booking)), actual);
+
+        verify(bookingRepository, times(1))
+                .findBookingViews(Mockito.any(), Mockito.eq(OffsetPageRequest.of(0, 5)));
+    }
+
+    @Test
+    void getBookingsByOwnerAfter_whenCursorIsNotValid_thenBadRequestExceptionThrown() {
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
+
+        assertThrows(BadRequestException.class,
+                () -> bookingService.getBookingsByOwnerAfter(1L, BookingState.ALL, "not-a-cursor", 5));
+
+        verify(bookingRepository, never()).findBookingViews(Mockito.any(), Mockito.any(Pageable.class));
     }
 
     @Test
     void getBookingsByOwner_whenInvalidUserId_thenNotFoundExceptionThrown() {
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -229,11 +276,8 @@ class BookingServiceImplTest {
         assertEquals("Пользователь с идентификатором 1 не найден",
                 exception.getMessage());
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
-        verify(bookingRepository, never()).getBookingsByOwner(Mockito.anyLong(),
-                Mockito.anyString());
-        verify(bookingRepository, never()).getBookingsByOwnerPageable(Mockito.anyLong(),
-                Mockito.anyString(), Mockito.any(Pageable.class));
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
+        verify(bookingRepository, never()).findBookingViews(Mockito.any(), Mockito.any(Pageable.class));
     }
 
     @Test
@@ -246,11 +290,10 @@ class BookingServiceImplTest {
         final Booking booking = new Booking();
         booking.setBooker(booker);
         booking.setItem(item);
-        final List<Booking> bookings = List.of(booking);
         final List<BookingView> bookingViews = List.of(BookingMapper.toBookingView(booking));
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
-        when(bookingRepository.getBookingsByOwner(Mockito.anyLong(), Mockito.anyString()))
-                .thenReturn(bookings);
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
+        when(bookingRepository.findBookingViews(Mockito.any(), Mockito.any(Pageable.class)))
+                .thenReturn(bookingViews);
 
         final List<BookingView> actual = bookingService.getBookingsByOwner(1L, BookingState.ALL,
                 null, null);
@@ -258,11 +301,9 @@ class BookingServiceImplTest {
         assertNotNull(actual);
         assertEquals(bookingViews, actual);
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(bookingRepository, times(1))
-                .getBookingsByOwner(Mockito.anyLong(), Mockito.anyString());
-        verify(bookingRepository, never()).getBookingsByOwnerPageable(Mockito.anyLong(),
-                Mockito.anyString(), Mockito.any(Pageable.class));
+                .findBookingViews(Mockito.any(), Mockito.eq(Pageable.unpaged()));
     }
 
     @Test
@@ -275,11 +316,10 @@ class BookingServiceImplTest {
         final Booking booking = new Booking();
         booking.setBooker(booker);
         booking.setItem(item);
-        final List<Booking> bookings = List.of(booking);
         final List<BookingView> bookingViews = List.of(BookingMapper.toBookingView(booking));
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
-        when(bookingRepository.getBookingsByOwnerPageable(Mockito.anyLong(), Mockito.anyString(),
-                Mockito.any(Pageable.class))).thenReturn(bookings);
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
+        when(bookingRepository.findBookingViews(Mockito.any(), Mockito.any(Pageable.class)))
+                .thenReturn(bookingViews);
 
         final List<BookingView> actual = bookingService.getBookingsByOwner(1L, BookingState.ALL,
                 0, 1);
@@ -287,12 +327,9 @@ class BookingServiceImplTest {
         assertNotNull(actual);
         assertEquals(bookingViews, actual);
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
-        verify(bookingRepository, never())
-                .getBookingsByOwner(Mockito.anyLong(), Mockito.anyString());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(bookingRepository, times(1))
-                .getBookingsByOwnerPageable(Mockito.anyLong(), Mockito.anyString(),
-                        Mockito.any(Pageable.class));
+                .findBookingViews(Mockito.any(), Mockito.eq(OffsetPageRequest.of(0, 1)));
     }
 
     @Test
@@ -309,26 +346,33 @@ class BookingServiceImplTest {
         final BookingRequest bookingRequest = new BookingRequest();
         bookingRequest.setItemId(1L);
         final Booking booking = BookingMapper.fromBookingRequest(bookingRequest);
+        booking.setItem(item);
         booking.setBooker(user);
         booking.setStatus(BookingStatus.WAITING);
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository.save(Mockito.any(Booking.class))).thenReturn(booking);
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(user));
+        when(itemRepository.findItemByIdForUpdate(Mockito.anyLong())).thenReturn(Optional.of(item));
+        when(bookingRepository.saveAndFlush(Mockito.any(Booking.class))).thenAnswer(invocation -> {
+            Booking saved = invocation.getArgument(0);
+            assertSame(item, saved.getItem());
+
+            return saved;
+        });
 
         final BookingView actual = bookingService.create(1L, bookingRequest);
 
         assertNotNull(actual);
         assertEquals(BookingMapper.toBookingView(booking), actual);
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
-        verify(itemRepository, times(1)).findById(Mockito.anyLong());
-        verify(bookingRepository, times(1)).save(Mockito.any(Booking.class));
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
+        verify(itemRepository, times(1)).findItemByIdForUpdate(Mockito.anyLong());
+        verify(bookingRepository, times(1)).saveAndFlush(Mockito.any(Booking.class));
+        verify(itemAvailabilityCache, times(1)).invalidate(1L);
     }
 
     @Test
     void create_whenInvalidUserId_thenNotFoundExceptionThrown() {
         final BookingRequest bookingRequest = new BookingRequest();
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -339,9 +383,9 @@ class BookingServiceImplTest {
         assertEquals("Пользователь с идентификатором 1 не найден",
                 exception.getMessage());
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
-        verify(itemRepository, never()).findById(Mockito.anyLong());
-        verify(bookingRepository, never()).save(Mockito.any(Booking.class));
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
+        verify(itemRepository, never()).findItemByIdForUpdate(Mockito.anyLong());
+        verify(bookingRepository, never()).saveAndFlush(Mockito.any(Booking.class));
     }
 
     @Test
@@ -355,8 +399,8 @@ class BookingServiceImplTest {
         item.setAvailable(true);
         final BookingRequest bookingRequest = new BookingRequest();
         bookingRequest.setItemId(1L);
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(item));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(user));
+        when(itemRepository.findItemByIdForUpdate(Mockito.anyLong())).thenReturn(Optional.of(item));
 
         final NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -367,9 +411,9 @@ class BookingServiceImplTest {
         assertEquals("Попытка забронировать собственную вещь",
                 exception.getMessage());
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
-        verify(itemRepository, times(1)).findById(Mockito.anyLong());
-        verify(bookingRepository, never()).save(Mockito.any(Booking.class));
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
+        verify(itemRepository, times(1)).findItemByIdForUpdate(Mockito.anyLong());
+        verify(bookingRepository, never()).saveAndFlush(Mockito.any(Booking.class));
     }
 
     @Test
@@ -385,8 +429,8 @@ class BookingServiceImplTest {
         item.setAvailable(false);
         final BookingRequest bookingRequest = new BookingRequest();
         bookingRequest.setItemId(1L);
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(user));
-        when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(item));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(user));
+        when(itemRepository.findItemByIdForUpdate(Mockito.anyLong())).thenReturn(Optional.of(item));
 
         final BadRequestException exception = assertThrows(
                 BadRequestException.class,
@@ -397,9 +441,34 @@ class BookingServiceImplTest {
         assertEquals("Вещь с itemId = 1 занята",
                 exception.getMessage());
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
-        verify(itemRepository, times(1)).findById(Mockito.anyLong());
-        verify(bookingRepository, never()).save(Mockito.any(Booking.class));
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
+        verify(itemRepository, times(1)).findItemByIdForUpdate(Mockito.anyLong());
+        verify(bookingRepository, never()).saveAndFlush(Mockito.any(Booking.class));
+    }
+
+    @Test
+    void create_whenPeriodOverlapsExistingBooking_thenConflictExceptionThrown() {
+        final User user = new User(1L, "booker", "booker@email.com");
+        final User owner = new User(2L, "owner", "owner@email.com");
+        final Item item = new Item(1L, "name", "description", true, owner, null, null);
+        final LocalDateTime start = LocalDateTime.now().plusDays(1);
+        final BookingRequest bookingRequest = new BookingRequest();
+        bookingRequest.setItemId(1L);
+        bookingRequest.setStart(start);
+        bookingRequest.setEnd(start.plusDays(1));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(user));
+        when(itemRepository.findItemByIdForUpdate(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.existsOverlappingBooking(1L, start, start.plusDays(1))).thenReturn(true);
+
+        final ConflictException exception = assertThrows(
+                ConflictException.class,
+                () -> bookingService.create(1L, bookingRequest)
+        );
+
+        assertEquals("Вещь с itemId = 1 уже забронирована на пересекающийся период",
+                exception.getMessage());
+
+        verify(bookingRepository, never()).saveAndFlush(Mockito.any(Booking.class));
     }
 
     @Test
@@ -417,18 +486,55 @@ class BookingServiceImplTest {
         booking.setBooker(user);
         booking.setItem(item);
         booking.setStatus(BookingStatus.WAITING);
+        booking.setVersion(0L);
         when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(booking));
         when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(item));
-        when(bookingRepository.save(Mockito.any(Booking.class))).thenReturn(booking);
+        when(bookingRepository.updateWaitingBookingStatus(1L, 0L, BookingStatus.APPROVED)).thenReturn(1);
 
         final BookingView actual = bookingService.approveBooking(2L, 1L, true);
 
         assertNotNull(actual);
+        assertEquals(BookingStatus.APPROVED, actual.getStatus());
+        assertEquals(1L, booking.getVersion());
         assertEquals(BookingMapper.toBookingView(booking), actual);
 
         verify(bookingRepository, times(1)).findById(Mockito.anyLong());
         verify(itemRepository, times(1)).findById(Mockito.anyLong());
-        verify(bookingRepository, times(1)).save(Mockito.any(Booking.class));
+        verify(bookingRepository, times(1)).updateWaitingBookingStatus(1L, 0L, BookingStatus.APPROVED);
+        verify(bookingRepository, never()).save(Mockito.any(Booking.class));
+        verify(itemAvailabilityCache, times(1)).invalidate(Mockito.anyLong());
+    }
+
+    @Test
+    void approveBooking_whenBookingChangedConcurrently_thenConflictExceptionThrown() {
+        final User user = new User();
+        user.setId(1L);
+        final User owner = new User();
+        owner.setId(2L);
+        final Item item = new Item();
+        item.setId(1L);
+        item.setName("name");
+        item.setOwner(owner);
+        item.setAvailable(true);
+        final Booking booking = new Booking();
+        booking.setBooker(user);
+        booking.setItem(item);
+        booking.setStatus(BookingStatus.WAITING);
+        booking.setVersion(0L);
+        when(bookingRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(booking));
+        when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(item));
+        when(bookingRepository.updateWaitingBookingStatus(1L, 0L, BookingStatus.REJECTED)).thenReturn(0);
+
+        final ConflictException exception = assertThrows(
+                ConflictException.class,
+                () -> bookingService.approveBooking(2L, 1L, false)
+        );
+
+        assertNotNull(exception);
+        assertEquals("Бронирование с идентификатором 1 было изменено параллельным запросом",
+                exception.getMessage());
+
+        verify(itemAvailabilityCache, never()).invalidate(Mockito.anyLong());
     }
 
     @Test
@@ -445,7 +551,8 @@ class BookingServiceImplTest {
 
         verify(bookingRepository, times(1)).findById(Mockito.anyLong());
         verify(itemRepository, never()).findById(Mockito.anyLong());
-        verify(bookingRepository, never()).save(Mockito.any(Booking.class));
+        verify(bookingRepository, never()).updateWaitingBookingStatus(Mockito.anyLong(), Mockito.any(),
+                Mockito.any(BookingStatus.class));
     }
 
     @Test
@@ -476,7 +583,8 @@ class BookingServiceImplTest {
 
         verify(bookingRepository, times(1)).findById(Mockito.anyLong());
         verify(itemRepository, times(1)).findById(Mockito.anyLong());
-        verify(bookingRepository, never()).save(Mockito.any(Booking.class));
+        verify(bookingRepository, never()).updateWaitingBookingStatus(Mockito.anyLong(), Mockito.any(),
+                Mockito.any(BookingStatus.class));
     }
 
     @Test
@@ -507,6 +615,103 @@ class BookingServiceImplTest {
 
         verify(bookingRepository, times(1)).findById(Mockito.anyLong());
         verify(itemRepository, times(1)).findById(Mockito.anyLong());
-        verify(bookingRepository, never()).save(Mockito.any(Booking.class));
+        verify(bookingRepository, never()).updateWaitingBookingStatus(Mockito.anyLong(), Mockito.any(),
+                Mockito.any(BookingStatus.class));
+    }
+
+    @Test
+    void approveBookings_whenInvoked_thenReturnOutcomePerBookingInRequestOrder() {
+        final User owner = new User(1L, "owner", "owner@mail.com");
+        final Item item = new Item(10L, "name", "description", true, owner, null, null);
+        final Booking waitingToApprove = new Booking(1L, null, null, item, null, BookingStatus.WAITING, 0L);
+        final Booking waitingToReject = new Booking(2L, null, null, item, null, BookingStatus.WAITING, 0L);
+        final Booking approved = new Booking(3L, null, null, item, null, BookingStatus.APPROVED, 1L);
+
+        when(userLookup.findUserById(1L)).thenReturn(Optional.of(owner));
+        when(bookingRepository.findBookingsByIdsAndItemOwnerId(Mockito.anyCollection(), Mockito.eq(1L)))
+                .thenReturn(List.of(waitingToApprove, waitingToReject, approved));
+        when(bookingRepository.updateWaitingBookingsStatus(Mockito.eq(List.of(waitingToApprove, waitingToReject)),
+                Mockito.anyMap())).thenReturn(Set.of(1L, 2L));
+
+        final List<BookingApprovalView> actual = bookingService.approveBookings(1L, List.of(
+                new BookingApprovalRequest(1L, true),
+                new BookingApprovalRequest(2L, false),
+                new BookingApprovalRequest(3L, false),
+                new BookingApprovalRequest(4L, true)));
+
+        assertEquals(List.of(
+                new BookingApprovalView(1L, BookingApprovalOutcome.UPDATED, BookingStatus.APPROVED),
+                new BookingApprovalView(2L, BookingApprovalOutcome.UPDATED, BookingStatus.REJECTED),
+                new BookingApprovalView(3L, BookingApprovalOutcome.ALREADY_PROCESSED, BookingStatus.APPROVED),
+                new BookingApprovalView(4L, BookingApprovalOutcome.NOT_FOUND, null)), actual);
+
+        verify(bookingRepository, times(1))
+                .findBookingsByIdsAndItemOwnerId(Mockito.anyCollection(), Mockito.eq(1L));
+        verify(itemAvailabilityCache, times(2)).invalidate(10L);
+    }
+
+    @Test
+    void approveBookings_whenBookingChangedConcurrently_thenConflictReported() {
+        final User owner = new User(1L, "owner", "owner@mail.com");
+        final Item item = new Item(10L, "name", "description", true, owner, null, null);
+
+        when(userLookup.findUserById(1L)).thenReturn(Optional.of(owner));
+        when(bookingRepository.findBookingsByIdsAndItemOwnerId(Mockito.anyCollection(), Mockito.eq(1L)))
+                .thenReturn(List.of(new Booking(1L, null, null, item, null, BookingStatus.WAITING, 0L)))
+                .thenReturn(List.of(new Booking(1L, null, null, item, null, BookingStatus.REJECTED, 1L)));
+        when(bookingRepository.updateWaitingBookingsStatus(Mockito.anyCollection(), Mockito.anyMap()))
+                .thenReturn(Set.of());
+
+        final List<BookingApprovalView> actual = bookingService.approveBookings(1L,
+                List.of(new BookingApprovalRequest(1L, true)));
+
+        assertEquals(List.of(new BookingApprovalView(1L, BookingApprovalOutcome.CONFLICT, BookingStatus.REJECTED)),
+                actual);
+
+        verify(itemAvailabilityCache, never()).invalidate(Mockito.anyLong());
+    }
+
+    @Test
+    void approveBookings_whenBookingRepeated_thenBadRequestExceptionThrown() {
+        when(userLookup.findUserById(1L)).thenReturn(Optional.of(new User(1L, "owner", "owner@mail.com")));
+
+        final BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> bookingService.approveBookings(1L, List.of(
+                        new BookingApprovalRequest(1L, true),
+                        new BookingApprovalRequest(1L, false)))
+        );
+
+        assertEquals("Бронирование с идентификатором 1 указано несколько раз", exception.getMessage());
+
+        verify(bookingRepository, never()).updateWaitingBookingsStatus(Mockito.anyCollection(), Mockito.anyMap());
+    }
+
+    @Test
+    void approveBookings_whenOneBookingChangedConcurrently_thenOnlyUpdatedBookingReportedAsUpdated() {
+        final User owner = new User(1L, "owner", "owner@mail.com");
+        final Item item = new Item(10L, "name", "description", true, owner, null, null);
+        final Booking first = new Booking(1L, null, null, item, null, BookingStatus.WAITING, 0L);
+        final Booking second = new Booking(2L, null, null, item, null, BookingStatus.WAITING, 0L);
+
+        when(userLookup.findUserById(1L)).thenReturn(Optional.of(owner));
+        // Второе бронирование параллельно одобрено другим запросом: статус совпадает с запрошенным,
+        // но версия изменилась, поэтому оно не считается обновлённым этим запросом.
+        when(bookingRepository.findBookingsByIdsAndItemOwnerId(Mockito.anyCollection(), Mockito.eq(1L)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(new Booking(1L, null, null, item, null, BookingStatus.APPROVED, 1L),
+                        new Booking(2L, null, null, item, null, BookingStatus.APPROVED, 1L)));
+        when(bookingRepository.updateWaitingBookingsStatus(Mockito.anyCollection(), Mockito.anyMap()))
+                .thenReturn(Set.of(1L));
+
+        final List<BookingApprovalView> actual = bookingService.approveBookings(1L, List.of(
+                new BookingApprovalRequest(1L, true),
+                new BookingApprovalRequest(2L, true)));
+
+        assertEquals(List.of(
+                new BookingApprovalView(1L, BookingApprovalOutcome.UPDATED, BookingStatus.APPROVED),
+                new BookingApprovalView(2L, BookingApprovalOutcome.CONFLICT, BookingStatus.APPROVED)), actual);
+
+        verify(itemAvailabilityCache, times(1)).invalidate(10L);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.config;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Чтение вещей по идентификатору с кэшем второго уровня и в обход него (CacheMode.IGNORE)
+ * в одном контексте на H2. Запуск: mvn test -P benchmark
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class HibernateCacheBenchmarkTest {
+    private static final int ITEMS = 1_000;
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 200_000;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private final List<Long> itemIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(new User(null, "owner", "cache_benchmark_owner@email.com"));
+        List<Item> items = new ArrayList<>();
+
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Item(null, "name_" + i, "description_" + i, true, owner, null, null));
+        }
+
+        itemRepository.saveAll(items).forEach(item -> itemIds.add(item.getId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findById_whenCachedAndUncached_thenPrintThroughput() {
+        findItems(CacheMode.NORMAL, WARMUP);
+        findItems(CacheMode.IGNORE, WARMUP);
+
+        long cachedNanos = findItems(CacheMode.NORMAL, ITERATIONS);
+        long uncachedNanos = findItems(CacheMode.IGNORE, ITERATIONS);
+
+        System.out.printf("items=%d lookups=%d cached=%.0f/s uncached=%.0f/s%n", ITEMS, ITERATIONS,
+                ITERATIONS * 1e9 / cachedNanos, ITERATIONS * 1e9 / uncachedNanos);
+    }
+
+    private long findItems(CacheMode cacheMode, int count) {
+        long startNanos = System.nanoTime();
+
+        for (int i = 0; i < count; i++) {
+            EntityManager entityManager = entityManagerFactory.createEntityManager();
+
+            try {
+                entityManager.unwrap(Session.class).setCacheMode(cacheMode);
+                Long itemId = itemIds.get(ThreadLocalRandom.current().nextInt(itemIds.size()));
+
+                assertNotNull(entityManager.find(Item.class, itemId));
+            } finally {
+                entityManager.close();
+            }
+        }
+
+        return System.nanoTime() - startNanos;
+    }
+}
@@ -0,0 +1,162 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+import javax.cache.CacheManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class HibernateCacheIT {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    @Autowired
+    private ItemService itemService;
+
+    private Statistics statistics;
+
+    private User owner;
+
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "owner", "cache_owner@email.com"));
+        item = itemRepository.save(new Item(null, "name", "description", true, owner, null, null));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        itemRequestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findById_whenEntityCached_thenDatabaseNotQueried() {
+        assertTrue(itemRepository.findById(item.getId()).isPresent());
+        assertTrue(userRepository.findById(owner.getId()).isPresent());
+
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void findById_whenEntityUpdated_thenReturnUpdatedEntity() {
+        item.setName("updated");
+        itemRepository.save(item);
+
+        assertEquals("updated", itemRepository.findById(item.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void findItemsByOwnerIdOrderById_whenInvokedTwice_thenSecondResultFromQueryCache() {
+        itemRepository.findItemsByOwnerIdOrderById(owner.getId());
+        List<Item> items = itemRepository.findItemsByOwnerIdOrderById(owner.getId());
+
+        assertEquals(1, items.size());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void findItemsByOwnerIdOrderById_whenItemAdded_thenQueryCacheInvalidated() {
+        itemRepository.findItemsByOwnerIdOrderById(owner.getId());
+        itemRepository.save(new Item(null, "name_2", "description_2", true, owner, null, null));
+
+        List<Item> items = itemRepository.findItemsByOwnerIdOrderById(owner.getId());
+
+        assertEquals(2, items.size());
+        assertEquals(0, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void streamSearchItems_whenStreamed_thenItemsNotPutToCache() {
+        itemRepository.save(new Item(null, "name_2", "description_2", true, owner, null, null));
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        List<ItemView> actual = new ArrayList<>();
+
+        itemService.streamSearchItems("name", actual::add);
+
+        assertEquals(2, actual.size());
+        assertEquals(0, statistics.getSecondLevelCachePutCount());
+        assertFalse(entityManagerFactory.getCache().contains(Item.class, item.getId()));
+    }
+
+    @Test
+    void delete_whenOwnerDeleted_thenCachedItemsEvicted() {
+        assertTrue(itemRepository.findById(item.getId()).isPresent());
+
+        userService.delete(owner.getId());
+
+        assertEquals(0, itemRepository.count());
+        assertTrue(itemRepository.findById(item.getId()).isEmpty());
+    }
+
+    @Test
+    void delete_whenRequesterDeleted_thenCachedItemsLoseRequest() {
+        User requester = userRepository.save(new User(null, "requester", "cache_requester@email.com"));
+        ItemRequest itemRequest = itemRequestRepository.save(new ItemRequest(null, "description", requester,
+                LocalDateTime.now(), new ArrayList<>()));
+        item.setRequest(itemRequest);
+        itemRepository.save(item);
+        assertTrue(itemRepository.findById(item.getId()).isPresent());
+        assertTrue(itemRequestRepository.findById(itemRequest.getId()).isPresent());
+
+        userService.delete(requester.getId());
+
+        assertTrue(itemRequestRepository.findById(itemRequest.getId()).isEmpty());
+        assertNull(itemRepository.findById(item.getId()).orElseThrow().getRequest());
+    }
+
+    @Test
+    void hibernateCacheManager_whenRegionConfigured_thenMaximumSizeApplied() {
+        CaffeineConfiguration<?, ?> configuration = hibernateCacheManager.getCache("items")
+                .getConfiguration(CaffeineConfiguration.class);
+
+        assertEquals(OptionalLong.of(10_000), configuration.getMaximumSize());
+        assertNotNull(hibernateCacheManager.getCache("default-update-timestamps-region"));
+    }
+}
@@ -0,0 +1,50 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.shareitutils.dto.IdFieldView;
+import ru.practicum.shareit.shareitutils.dto.IdNameFieldView;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JsonConfigTest {
+    private final ObjectMapper reflectionMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final ObjectMapper blackbirdMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new JsonConfig().blackbirdModule())
+            .build();
+
+    @SneakyThrows
+    @Test
+    void blackbirdModule_whenViewsSerialized_thenJsonSameAsReflection() {
+        LocalDateTime dateTime = LocalDateTime.of(2024, 8, 1, 10, 30);
+        List<ItemView> itemViews = List.of(new ItemView(1L, "name", "description", true,
+                new BookingShortView(1L, 2L), new BookingShortView(2L, 3L),
+                List.of(new CommentView(1L, "text", "author", dateTime)), 4L));
+        BookingView bookingView = new BookingView(1L, dateTime, dateTime.plusDays(1), BookingStatus.WAITING,
+                new IdFieldView(2L), new IdNameFieldView(1L, "name"));
+
+        assertEquals(reflectionMapper.writeValueAsString(itemViews), blackbirdMapper.writeValueAsString(itemViews));
+        assertEquals(reflectionMapper.writeValueAsString(bookingView),
+                blackbirdMapper.writeValueAsString(bookingView));
+    }
+
+    @SneakyThrows
+    @Test
+    void blackbirdModule_whenViewDeserialized_thenSameAsReflection() {
+        String json = "{\"id\":1,\"start\":\"2024-08-01T10:30:00\",\"end\":\"2024-08-02T10:30:00\"," +
+                "\"status\":\"APPROVED\",\"booker\":{\"id\":2},\"item\":{\"id\":1,\"name\":\"name\"}}";
+
+        assertEquals(reflectionMapper.readValue(json, BookingView.class),
+                blackbirdMapper.readValue(json, BookingView.class));
+    }
+}
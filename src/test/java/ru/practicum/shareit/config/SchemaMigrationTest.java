@@ -0,0 +1,42 @@
+package ru.practicum.shareit.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Test;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMigrationTest {
+    private static final String LOCATION = "classpath:db/migration/common";
+
+    @Test
+    void migrate_whenSchemaEmpty_thenAllMigrationsApplied() {
+        Flyway flyway = flyway("jdbc:h2:mem:migration_empty;DB_CLOSE_DELAY=-1");
+
+        assertTrue(flyway.migrate().migrationsExecuted > 0);
+        assertEquals(0, flyway.migrate().migrationsExecuted);
+    }
+
+    @Test
+    void migrate_whenSchemaNotEmptyWithoutHistory_thenRefuseToStart() throws SQLException {
+        String url = "jdbc:h2:mem:migration_legacy;DB_CLOSE_DELAY=-1";
+
+        try (Connection connection = DriverManager.getConnection(url, "test", "test");
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table users (user_id bigint generated by default as identity primary key)");
+        }
+
+        assertThrows(FlywayException.class, () -> flyway(url).migrate());
+    }
+
+    private Flyway flyway(String url) {
+        return Flyway.configure()
+                .dataSource(url, "test", "test")
+                .locations(LOCATION)
+                .load();
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.item.availability;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemAvailabilityView;
+import ru.practicum.shareit.item.dto.TimeIntervalView;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BusyIntervalsTest {
+    private final LocalDateTime base = LocalDateTime.of(2024, 8, 1, 0, 0);
+
+    @Test
+    void of_whenBookingsOverlapOrTouch_thenMergeIntoOneInterval() {
+        BusyIntervals busyIntervals = BusyIntervals.of(List.of(
+                makeBooking(0, 10),
+                makeBooking(5, 12),
+                makeBooking(12, 14),
+                makeBooking(20, 22)));
+
+        assertEquals(2, busyIntervals.size());
+    }
+
+    @Test
+    void toItemAvailabilityView_whenPeriodCutsIntervals_thenClipBusyAndReturnFreeGaps() {
+        BusyIntervals busyIntervals = BusyIntervals.of(List.of(
+                makeBooking(0, 10),
+                makeBooking(20, 30),
+                makeBooking(40, 50)));
+
+        ItemAvailabilityView actual = busyIntervals.toItemAvailabilityView(1L, at(5), at(45));
+
+        assertEquals(1L, actual.getItemId());
+        assertEquals(List.of(interval(5, 10), interval(20, 30), interval(40, 45)), actual.getBusy());
+        assertEquals(List.of(interval(10, 20), interval(30, 40)), actual.getFree());
+    }
+
+    @Test
+    void toItemAvailabilityView_whenNoBookingsInPeriod_thenWholePeriodFree() {
+        BusyIntervals busyIntervals = BusyIntervals.of(List.of(makeBooking(0, 10), makeBooking(50, 60)));
+
+        ItemAvailabilityView actual = busyIntervals.toItemAvailabilityView(1L, at(10), at(50));
+
+        assertEquals(List.of(), actual.getBusy());
+        assertEquals(List.of(interval(10, 50)), actual.getFree());
+    }
+
+    @Test
+    void toItemAvailabilityView_whenPeriodInsideInterval_thenWholePeriodBusy() {
+        BusyIntervals busyIntervals = BusyIntervals.of(List.of(makeBooking(0, 100)));
+
+        ItemAvailabilityView actual = busyIntervals.toItemAvailabilityView(1L, at(10), at(20));
+
+        assertEquals(List.of(interval(10, 20)), actual.getBusy());
+        assertEquals(List.of(), actual.getFree());
+    }
+
+    private Booking makeBooking(int startHours, int endHours) {
+        return new Booking(null, at(startHours), at(endHours), null, null, null, null);
+    }
+
+    private TimeIntervalView interval(int startHours, int endHours) {
+        return new TimeIntervalView(at(startHours), at(endHours));
+    }
+
+    private LocalDateTime at(int hours) {
+        return base.plusHours(hours);
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit.item.availability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAvailabilityCacheTest {
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private ItemAvailabilityCache itemAvailabilityCache;
+
+    @BeforeEach
+    void setUp() {
+        itemAvailabilityCache = new ItemAvailabilityCache(bookingRepository, new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(10), Duration.ofDays(1));
+    }
+
+    @Test
+    void getBusyIntervals_whenInvokedTwice_thenLoadBookingsOnce() {
+        when(bookingRepository.findBookingsByItemIdAndStatusInAndEndDtAfterOrderByStartDt(Mockito.eq(1L),
+                Mockito.anyCollection(), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        BusyIntervals first = itemAvailabilityCache.getBusyIntervals(1L, LocalDateTime.now());
+        BusyIntervals second = itemAvailabilityCache.getBusyIntervals(1L, LocalDateTime.now());
+
+        assertSame(first, second);
+        verify(bookingRepository, times(1)).findBookingsByItemIdAndStatusInAndEndDtAfterOrderByStartDt(
+                Mockito.eq(1L), Mockito.anyCollection(), Mockito.any(LocalDateTime.class));
+    }
+
+    @Test
+    void getBusyIntervals_whenLoaded_thenOnlyBookingsEndingAfterHistoryStartRequested() {
+        LocalDateTime before = LocalDateTime.now().minusDays(1);
+        when(bookingRepository.findBookingsByItemIdAndStatusInAndEndDtAfterOrderByStartDt(Mockito.eq(1L),
+                Mockito.anyCollection(), Mockito.argThat(endDt -> !endDt.isBefore(before))))
+                .thenReturn(List.of());
+
+        itemAvailabilityCache.getBusyIntervals(1L, LocalDateTime.now());
+
+        verify(bookingRepository, times(1)).findBookingsByItemIdAndStatusInAndEndDtAfterOrderByStartDt(
+                Mockito.eq(1L), Mockito.anyCollection(), Mockito.any(LocalDateTime.class));
+    }
+
+    @Test
+    void getBusyIntervals_whenPeriodStartsBeforeCachedHistory_thenLoadFromPeriodStartWithoutCaching() {
+        LocalDateTime from = LocalDateTime.now().minusDays(30);
+        when(bookingRepository.findBookingsByItemIdAndStatusInAndEndDtAfterOrderByStartDt(Mockito.eq(1L),
+                Mockito.anyCollection(), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        itemAvailabilityCache.getBusyIntervals(1L, from);
+        itemAvailabilityCache.getBusyIntervals(1L, from);
+
+        verify(bookingRepository, times(1)).findBookingsByItemIdAndStatusInAndEndDtAfterOrderByStartDt(
+                Mockito.eq(1L), Mockito.anyCollection(), Mockito.argThat(endDt -> endDt.isAfter(from)));
+        verify(bookingRepository, times(2)).findBookingsByItemIdAndStatusInAndEndDtAfterOrderByStartDt(
+                Mockito.eq(1L), Mockito.anyCollection(), Mockito.eq(from));
+    }
+
+    @Test
+    void getBusyIntervals_whenLoadFails_thenFailureNotCached() {
+        when(bookingRepository.findBookingsByItemIdAndStatusInAndEndDtAfterOrderByStartDt(Mockito.eq(1L),
+                Mockito.anyCollection(), Mockito.any(LocalDateTime.class)))
+                .thenThrow(new IllegalStateException("db"))
+                .thenReturn(List.of());
+
+        assertThrows(IllegalStateException.class,
+                () -> itemAvailabilityCache.getBusyIntervals(1L, LocalDateTime.now()));
+
+        itemAvailabilityCache.getBusyIntervals(1L, LocalDateTime.now());
+
+        verify(bookingRepository, times(2)).findBookingsByItemIdAndStatusInAndEndDtAfterOrderByStartDt(
+                Mockito.eq(1L), Mockito.anyCollection(), Mockito.any(LocalDateTime.class));
+    }
+
+    @Test
+    @SneakyThrows
+    void getBusyIntervals_whenConcurrentLoadFails_thenWaitingRequestLoadsItself() {
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch failLoad = new CountDownLatch(1);
+        when(bookingRepository.findBookingsByItemIdAndStatusInAndEndDtAfterOrderByStartDt(Mockito.eq(1L),
+                Mockito.anyCollection(), Mockito.any(LocalDateTime.class)))
+                .thenAnswer(invocation -> {
+                    loadStarted.countDown();
+                    failLoad.await();
+                    throw new IllegalStateException("db");
+                })
+                .thenReturn(List.of());
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<BusyIntervals> failed = executor.submit(
+                    () -> itemAvailabilityCache.getBusyIntervals(1L, LocalDateTime.now()));
+            loadStarted.await();
+            Future<BusyIntervals> waiting = executor.submit(
+                    () -> itemAvailabilityCache.getBusyIntervals(1L, LocalDateTime.now()));
+            failLoad.countDown();
+
+            ExecutionException exception = assertThrows(ExecutionException.class, failed::get);
+            assertInstanceOf(IllegalStateException.class, exception.getCause());
+            assertEquals(0, waiting.get(5, TimeUnit.SECONDS).size());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(bookingRepository, times(2)).findBookingsByItemIdAndStatusInAndEndDtAfterOrderByStartDt(
+                Mockito.eq(1L), Mockito.anyCollection(), Mockito.any(LocalDateTime.class));
+    }
+
+    @Test
+    void invalidate_whenNoTransaction_thenReloadOnNextRequest() {
+        when(bookingRepository.findBookingsByItemIdAndStatusInAndEndDtAfterOrderByStartDt(Mockito.eq(1L),
+                Mockito.anyCollection(), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of());
+
+        itemAvailabilityCache.getBusyIntervals(1L, LocalDateTime.now());
+        itemAvailabilityCache.invalidate(1L);
+        itemAvailabilityCache.getBusyIntervals(1L, LocalDateTime.now());
+
+        verify(bookingRepository, times(2)).findBookingsByItemIdAndStatusInAndEndDtAfterOrderByStartDt(
+                Mockito.eq(1L), Mockito.anyCollection(), Mockito.any(LocalDateTime.class));
+    }
+}
@@ -7,23 +7,37 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentRequest;
 import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemAvailabilityView;
 import ru.practicum.shareit.item.dto.ItemCreateUpdateDto;
+import ru.practicum.shareit.item.dto.ItemImportView;
 import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.dto.TimeIntervalView;
 import ru.practicum.shareit.item.service.ItemService;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemController.class)
@@ -85,7 +99,7 @@ class ItemControllerIT {
         Long userId = 1L;
         Long itemId = 1L;
         ItemView item = new ItemView();
-        when(itemService.getItemById(userId, itemId)).thenReturn(item);
+        when(itemService.getItemById(userId, itemId, null, null)).thenReturn(item);
 
         String result = mockMvc.perform(get("/items/{itemId}", itemId).header(USER, userId))
                 .andExpect(status().isOk())
@@ -96,7 +110,107 @@ class ItemControllerIT {
         assertNotNull(result);
         assertEquals(objectMapper.writeValueAsString(item), result);
 
-        verify(itemService, times(1)).getItemById(userId, itemId);
+        verify(itemService, times(1)).getItemById(userId, itemId, null, null);
+    }
+
+    @SneakyThrows
+    @Test
+    void getUserItems_whenIfNoneMatchIsCurrentETag_thenResponseStatusNotModifiedAndItemsNotBuilt() {
+        Long userId = 1L;
+        String etag = "\"items\"";
+        when(itemService.getUserItemsETag(userId)).thenReturn(etag);
+
+        mockMvc.perform(get("/items").header(USER, userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        verify(itemService, never()).getUserItems(Mockito.anyLong());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemById_whenIfNoneMatchIsCurrentETag_thenResponseStatusNotModifiedAndItemNotBuilt() {
+        Long userId = 1L;
+        Long itemId = 1L;
+        String etag = "\"item\"";
+        when(itemService.getItemETag(userId, itemId)).thenReturn(etag);
+
+        mockMvc.perform(get("/items/{itemId}", itemId).header(USER, userId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verify(itemService, never()).getItemById(Mockito.anyLong(), Mockito.anyLong(), Mockito.any(), Mockito.any());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemById_whenIfNoneMatchIsStaleETag_thenResponseStatusOkWithCurrentETag() {
+        Long userId = 1L;
+        Long itemId = 1L;
+        String etag = "\"item\"";
+        ItemView item = new ItemView();
+        when(itemService.getItemETag(userId, itemId)).thenReturn(etag);
+        when(itemService.getItemById(userId, itemId, null, null)).thenReturn(item);
+
+        mockMvc.perform(get("/items/{itemId}", itemId).header(USER, userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().json(objectMapper.writeValueAsString(item)));
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemById_whenCommentsPageRequested_thenPassPageToService() {
+        Long userId = 1L;
+        Long itemId = 1L;
+        when(itemService.getItemById(userId, itemId, 10, 5)).thenReturn(new ItemView());
+
+        mockMvc.perform(get("/items/{itemId}", itemId).header(USER, userId)
+                        .param("commentsFrom", "10")
+                        .param("commentsSize", "5"))
+                .andExpect(status().isOk());
+
+        verify(itemService, times(1)).getItemById(userId, itemId, 10, 5);
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemById_whenCommentsFromWithoutCommentsSize_thenResponseStatusBadRequest() {
+        Long userId = 1L;
+        Long itemId = 1L;
+
+        mockMvc.perform(get("/items/{itemId}", itemId).header(USER, userId)
+                        .param("commentsFrom", "10"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).getItemETag(Mockito.anyLong(), Mockito.anyLong());
+        verify(itemService, never()).getItemById(Mockito.anyLong(), Mockito.anyLong(), Mockito.any(), Mockito.any());
+    }
+
+    @SneakyThrows
+    @Test
+    void getItemAvailability_whenValid_thenResponseStatusOkAndAvailabilityInBody() {
+        Long userId = 1L;
+        Long itemId = 1L;
+        LocalDateTime from = LocalDateTime.of(2024, 8, 1, 0, 0);
+        LocalDateTime to = from.plusDays(3);
+        ItemAvailabilityView availability = new ItemAvailabilityView(itemId, from, to,
+                List.of(new TimeIntervalView(from.plusDays(1), from.plusDays(2))),
+                List.of(new TimeIntervalView(from, from.plusDays(1)), new TimeIntervalView(from.plusDays(2), to)));
+        when(itemService.getItemAvailability(itemId, from, to)).thenReturn(availability);
+
+        String result = mockMvc.perform(get("/items/{itemId}/availability", itemId).header(USER, userId)
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(availability), result);
+        verify(itemService, times(1)).getItemAvailability(itemId, from, to);
     }
 
     @SneakyThrows
@@ -104,12 +218,12 @@ class ItemControllerIT {
     void getItemById_whenItemIdIsNotValid_thenResponseStatusNotFound() {
         Long userId = 1L;
         Long itemId = 1L;
-        when(itemService.getItemById(userId, itemId)).thenThrow(new NotFoundException(""));
+        when(itemService.getItemById(userId, itemId, null, null)).thenThrow(new NotFoundException(""));
 
         mockMvc.perform(get("/items/{itemId}", itemId).header(USER, userId))
                 .andExpect(status().isNotFound());
 
-        verify(itemService, times(1)).getItemById(userId, itemId);
+        verify(itemService, times(1)).getItemById(userId, itemId, null, null);
     }
 
     @SneakyThrows
@@ -128,13 +242,60 @@ class ItemControllerIT {
         Long userId = 1L;
         List<ItemView> items = List.of(new ItemView());
         String searchText = "searchText";
-        when(itemService.searchItems(searchText)).thenReturn(items);
+        when(itemService.searchItems(searchText, null, null)).thenReturn(items);
 
         mockMvc.perform(get("/items/search")
                 .param("text", searchText).header(USER, userId))
                 .andExpect(status().isOk());
 
-        verify(itemService, times(1)).searchItems(searchText);
+        verify(itemService, times(1)).searchItems(searchText, null, null);
+    }
+
+    @SneakyThrows
+    @Test
+    void searchItem_whenPageRequested_thenPassPageToService() {
+        Long userId = 1L;
+        String searchText = "searchText";
+        when(itemService.searchItems(searchText, 0, 10)).thenReturn(List.of(new ItemView()));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", searchText)
+                        .param("from", "0")
+                        .param("size", "10")
+                        .header(USER, userId))
+                .andExpect(status().isOk());
+
+        verify(itemService, times(1)).searchItems(searchText, 0, 10);
+    }
+
+    @SneakyThrows
+    @Test
+    void streamSearchItem_whenValid_thenResponseIsNdjsonWithItemViewPerLine() {
+        Long userId = 1L;
+        String searchText = "searchText";
+        ItemView item1 = new ItemView(1L, "name_1", "description_1", true, null, null, List.of(), null);
+        ItemView item2 = new ItemView(2L, "name_2", "description_2", true, null, null, List.of(), null);
+        Mockito.doAnswer(invocation -> {
+            Consumer<ItemView> consumer = invocation.getArgument(1);
+            consumer.accept(item1);
+            consumer.accept(item2);
+            return null;
+        }).when(itemService).streamSearchItems(Mockito.eq(searchText), Mockito.any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/items/search/stream")
+                        .param("text", searchText).header(USER, userId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String result = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(item1) + "\n" + objectMapper.writeValueAsString(item2),
+                result);
     }
 
     @SneakyThrows
@@ -146,7 +307,7 @@ class ItemControllerIT {
                 .header(USER, userId))
                 .andExpect(status().isInternalServerError());
 
-        verify(itemService, never()).searchItems(Mockito.anyString());
+        verify(itemService, never()).searchItems(Mockito.anyString(), Mockito.any(), Mockito.any());
     }
 
     @SneakyThrows
@@ -158,7 +319,7 @@ class ItemControllerIT {
                         .param("text", searchText))
                 .andExpect(status().isInternalServerError());
 
-        verify(itemService, never()).searchItems(Mockito.anyString());
+        verify(itemService, never()).searchItems(Mockito.anyString(), Mockito.any(), Mockito.any());
     }
 
     @SneakyThrows
@@ -184,6 +345,52 @@ class ItemControllerIT {
         verify(itemService, times(1)).create(Mockito.anyLong(), Mockito.any(ItemCreateUpdateDto.class));
     }
 
+    @SneakyThrows
+    @Test
+    void importItems_whenNdjsonBody_thenEachRowPassedToServiceAndSummaryInBody() {
+        Long userId = 1L;
+        ItemImportView importView = new ItemImportView(2, 2, 0, List.of());
+        List<String> names = new ArrayList<>();
+        when(itemService.importItems(Mockito.eq(userId), Mockito.any())).thenAnswer(invocation -> {
+            Iterator<ItemCreateUpdateDto> rows = invocation.getArgument(1);
+            rows.forEachRemaining(row -> names.add(row.getName()));
+            return importView;
+        });
+
+        String result = mockMvc.perform(post("/items/bulk").header(USER, userId)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"name_1\",\"description\":\"description_1\",\"available\":true}\n" +
+                                "{\"name\":\"name_2\",\"description\":\"description_2\",\"available\":false}\n"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertEquals(objectMapper.writeValueAsString(importView), result);
+        assertEquals(List.of("name_1", "name_2"), names);
+    }
+
+    @SneakyThrows
+    @Test
+    void importItems_whenJsonArrayBody_thenEachElementPassedToService() {
+        Long userId = 1L;
+        List<String> names = new ArrayList<>();
+        when(itemService.importItems(Mockito.eq(userId), Mockito.any())).thenAnswer(invocation -> {
+            Iterator<ItemCreateUpdateDto> rows = invocation.getArgument(1);
+            rows.forEachRemaining(row -> names.add(row.getName()));
+            return new ItemImportView();
+        });
+
+        mockMvc.perform(post("/items/bulk").header(USER, userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                new ItemCreateUpdateDto("name_1", "description_1", true, null),
+                                new ItemCreateUpdateDto("name_2", "description_2", true, 1L)))))
+                .andExpect(status().isOk());
+
+        assertEquals(List.of("name_1", "name_2"), names);
+    }
+
     @SneakyThrows
     @Test
     void addItem_whenItemDtoRequestIsNotValid_thenResponseStatusBadRequest() {
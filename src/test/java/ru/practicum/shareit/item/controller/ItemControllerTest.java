@@ -7,6 +7,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
 import ru.practicum.shareit.item.dto.CommentRequest;
 import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.dto.ItemCreateUpdateDto;
@@ -33,7 +35,8 @@ class ItemControllerTest {
         when(itemService.getUserItems(userId))
                 .thenReturn(expectedItemView);
 
-        final ResponseEntity<List<ItemView>> response = itemController.getUserItems(userId);
+        final ResponseEntity<List<ItemView>> response = itemController.getUserItems(userId,
+                new ServletWebRequest(new MockHttpServletRequest()));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expectedItemView, response.getBody());
@@ -44,10 +47,11 @@ class ItemControllerTest {
         final Long userId = 1L;
         final Long itemId = 1L;
         ItemView expectedItemView = new ItemView();
-        when(itemService.getItemById(userId, itemId))
+        when(itemService.getItemById(userId, itemId, null, null))
                 .thenReturn(expectedItemView);
 
-        final ResponseEntity<ItemView> response = itemController.getItemById(userId, itemId);
+        final ResponseEntity<ItemView> response = itemController.getItemById(userId, itemId, null, null,
+                new ServletWebRequest(new MockHttpServletRequest()));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expectedItemView, response.getBody());
@@ -58,10 +62,10 @@ class ItemControllerTest {
         final Long userId = 1L;
         final String searchText = "search";
         final List<ItemView> expectedItemView = List.of(new ItemView());
-        when(itemService.searchItems(searchText))
+        when(itemService.searchItems(searchText, null, null))
                 .thenReturn(expectedItemView);
 
-        final ResponseEntity<List<ItemView>> response = itemController.searchItem(userId, searchText);
+        final ResponseEntity<List<ItemView>> response = itemController.searchItem(userId, searchText, null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expectedItemView, response.getBody());
@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.mapper;
 import org.junit.jupiter.api.Test;
 import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,4 +19,11 @@ class CommentMapperTest {
         assertNotNull(actual);
         assertEquals(commentView, actual);
     }
-}
\ No newline at end of file
+
+    @Test
+    void toCommentView_whenList_thenReturnCommentViewList() {
+        List<CommentView> actual = CommentMapper.toCommentView(List.of(new Comment(), new Comment()));
+
+        assertEquals(List.of(new CommentView(), new CommentView()), actual);
+    }
+}
@@ -4,6 +4,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.shareitutils.etag.ContentStamp;
+import ru.practicum.shareit.shareitutils.pageable.OffsetPageRequest;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -27,17 +29,17 @@ class CommentRepositoryIT {
     private Item item1;
     private Item item2;
     private Comment comment;
-
+    private User user;
 
     @BeforeEach
     void setUp() {
         User owner = new User(null, "owner", "owner@email.com");
         userRepository.save(owner);
-        User user = new User(null, "user", "user@email.com");
+        user = new User(null, "user", "user@email.com");
         userRepository.save(user);
-        item1 = new Item(null, "name_1", "description_1", true, owner, null);
+        item1 = new Item(null, "name_1", "description_1", true, owner, null, null);
         itemRepository.save(item1);
-        item2 = new Item(null, "name_2", "description_2", true, owner, null);
+        item2 = new Item(null, "name_2", "description_2", true, owner, null, null);
         itemRepository.save(item2);
         comment = new Comment(null, "text", item1, user, LocalDateTime.now());
         commentRepository.save(comment);
@@ -67,4 +69,51 @@ class CommentRepositoryIT {
         assertNotNull(comments);
         assertEquals(0, comments.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findCommentsByItemIds_whenItemHasComments_thenReturnCommentsWithAuthorsOrderedByCreated() {
+        Comment earlier = commentRepository.save(new Comment(null, "earlier", item1, user,
+                comment.getCreated().minusDays(1)));
+
+        List<Comment> comments = commentRepository.findCommentsByItemIds(List.of(item1.getId(), item2.getId()));
+
+        assertEquals(List.of(earlier, comment), comments);
+        assertEquals("user", comments.get(0).getUser().getName());
+    }
+
+    @Test
+    void findCommentsByItemIdPageable_whenPageRequested_thenReturnOnlyPage() {
+        Comment later = commentRepository.save(new Comment(null, "later", item1, user,
+                comment.getCreated().plusDays(1)));
+        commentRepository.save(new Comment(null, "latest", item1, user, comment.getCreated().plusDays(2)));
+
+        List<Comment> comments = commentRepository.findCommentsByItemIdPageable(item1.getId(),
+                OffsetPageRequest.of(1, 1));
+
+        assertEquals(List.of(later), comments);
+    }
+
+    @Test
+    void findCommentStampByItemIds_whenItemsHaveComments_thenReturnCountAndMaxId() {
+        Comment latest = commentRepository.save(new Comment(null, "latest", item2, user, LocalDateTime.now()));
+
+        ContentStamp stamp = commentRepository.findCommentStampByItemIds(List.of(item1.getId(), item2.getId()));
+
+        assertEquals(2L, stamp.getCount());
+        assertEquals(latest.getId(), stamp.getMaxId());
+        assertEquals(new ContentStamp(0L, 0L, 0L), commentRepository.findCommentStampByItemIds(List.of(-1L)));
+    }
+
+    @Test
+    void findCommentStampByItemIds_whenAuthorRenamed_thenRevisionIncreased() {
+        ContentStamp stamp = commentRepository.findCommentStampByItemIds(List.of(item1.getId()));
+
+        user.setName("renamed");
+        userRepository.saveAndFlush(user);
+        ContentStamp stampAfterRename = commentRepository.findCommentStampByItemIds(List.of(item1.getId()));
+
+        assertEquals(stamp.getCount(), stampAfterRename.getCount());
+        assertEquals(stamp.getMaxId(), stampAfterRename.getMaxId());
+        assertTrue(stampAfterRename.getRevision() > stamp.getRevision());
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item.repository;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.shareitutils.sql.SqlStatementRecorder;
+import ru.practicum.shareit.user.model.User;
+import javax.persistence.EntityManager;
+
+/**
+ * Вставка вещей пакетами по 50 строк против построчной вставки (размер пакета 1, как при IDENTITY).
+ * Запуск: mvn test -P benchmark
+ */
+@DataJpaTest(properties = SqlStatementRecorder.PROPERTY)
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class ItemBatchInsertBenchmarkTest {
+    private static final int ROWS = 20_000;
+    private static final int FLUSH_SIZE = 500;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = new User(null, "owner", "batch_owner@email.com");
+        entityManager.persist(owner);
+        entityManager.flush();
+    }
+
+    @Test
+    void persist_whenBatchedAndUnbatched_thenPrintRowsPerSecond() {
+        insertItems(1, FLUSH_SIZE);
+        insertItems(50, FLUSH_SIZE);
+
+        measure(1);
+        measure(50);
+    }
+
+    private void measure(int batchSize) {
+        SqlStatementRecorder.clear();
+        long startNanos = System.nanoTime();
+
+        insertItems(batchSize, ROWS);
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long statements = SqlStatementRecorder.getStatements().stream()
+                .filter(sql -> sql.startsWith("insert into items"))
+                .count();
+
+        System.out.printf("batch_size=%d rows=%d insert_statements=%d time=%dms rows_per_second=%.0f%n",
+                batchSize, ROWS, statements, elapsedNanos / 1_000_000, ROWS * 1e9 / elapsedNanos);
+    }
+
+    private void insertItems(int batchSize, int rows) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        User reference = entityManager.getReference(User.class, owner.getId());
+
+        for (int i = 0; i < rows; i++) {
+            entityManager.persist(new Item(null, "item_" + i, "description_" + i, true, reference, null, null));
+
+            if ((i + 1) % FLUSH_SIZE == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                reference = entityManager.getReference(User.class, owner.getId());
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
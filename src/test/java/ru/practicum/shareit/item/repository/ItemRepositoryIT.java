@@ -4,14 +4,20 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.shareitutils.pageable.OffsetPageRequest;
+import ru.practicum.shareit.shareitutils.sql.SqlStatementRecorder;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@DataJpaTest
+@DataJpaTest(properties = SqlStatementRecorder.PROPERTY)
 class ItemRepositoryIT {
     @Autowired
     private UserRepository userRepository;
@@ -30,9 +36,9 @@ class ItemRepositoryIT {
         userRepository.save(user1);
         user2 = new User(null, "user_2", "user_2@email.com");
         userRepository.save(user2);
-        item1 = new Item(null, "name_item_1", "description_1", true, user1, null);
+        item1 = new Item(null, "name_item_1", "description_1", true, user1, null, null);
         itemRepository.save(item1);
-        item2 = new Item(null, "name_item_2", "description_2", true, user1, null);
+        item2 = new Item(null, "name_item_2", "description_2", true, user1, null, null);
         itemRepository.save(item2);
     }
 
@@ -56,7 +62,7 @@ class ItemRepositoryIT {
 
     @Test
     void findItemBySearchText_whenItemsFoundByText_thenReturnNotEmptyCollection() {
-        List<Item> items = itemRepository.findItemBySearchText("item_1");
+        List<Item> items = itemRepository.findItemBySearchText("item_1", Pageable.unpaged());
 
         assertNotNull(items);
         assertEquals(1, items.size());
@@ -65,9 +71,57 @@ class ItemRepositoryIT {
 
     @Test
     void findItemBySearchText_whenItemsNotFoundByText_thenReturnEmptyCollection() {
-        List<Item> items = itemRepository.findItemBySearchText("foo");
+        List<Item> items = itemRepository.findItemBySearchText("foo", Pageable.unpaged());
 
         assertNotNull(items);
         assertEquals(0, items.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findItemBySearchText_whenItemsFound_thenReturnItemsRankedByRelevance() {
+        Item byDescription = itemRepository.save(new Item(null, "other", "дрель ударная", true, user1, null, null));
+        Item byNameSubstring = itemRepository.save(new Item(null, "Ударная дрель", "other", true, user1, null, null));
+        Item byNamePrefix = itemRepository.save(new Item(null, "Дрель ударная", "other", true, user1, null, null));
+        Item byName = itemRepository.save(new Item(null, "ДРЕЛЬ", "other", true, user1, null, null));
+        itemRepository.save(new Item(null, "Дрель", "unavailable", false, user1, null, null));
+
+        List<Item> items = itemRepository.findItemBySearchText("дрель", Pageable.unpaged());
+
+        assertEquals(List.of(byName, byNamePrefix, byNameSubstring, byDescription), items);
+    }
+
+    @Test
+    void findItemBySearchText_whenPageRequested_thenReturnOnlyPage() {
+        List<Item> items = itemRepository.findItemBySearchText("name_item", OffsetPageRequest.of(1, 1));
+
+        assertEquals(List.of(item2), items);
+    }
+
+    @Test
+    void streamItemBySearchText_whenItemsFoundByText_thenStreamItemsOrderedById() {
+        try (Stream<Item> items = itemRepository.streamItemBySearchText("description")) {
+            assertEquals(List.of(item1, item2), items.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void saveAll_whenManyItemsSaved_thenInsertedInBatches() {
+        List<Item> items = new ArrayList<>();
+
+        for (int i = 0; i < 120; i++) {
+            items.add(new Item(null, "batch_item_" + i, "description", true, user2, null, null));
+        }
+
+        SqlStatementRecorder.clear();
+        itemRepository.saveAll(items);
+        itemRepository.flush();
+
+        List<String> statements = SqlStatementRecorder.getStatements();
+
+        // В пакетном режиме Hibernate готовит insert один раз и переиспользует его для всех пакетов,
+        // без пакетов insert готовился бы для каждой строки.
+        assertEquals(1, statements.stream().filter(sql -> sql.startsWith("insert into items")).count());
+        assertTrue(statements.stream().filter(sql -> sql.contains("items_seq")).count() <= 3);
+        assertEquals(120, itemRepository.findItemsByOwnerIdOrderById(user2.getId()).size());
+    }
+}
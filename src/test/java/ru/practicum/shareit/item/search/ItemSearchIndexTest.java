@@ -0,0 +1,295 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemView;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        itemSearchIndex = new ItemSearchIndex(itemRepository, true);
+    }
+
+    @Test
+    void rebuild_whenInvoked_thenIndexAllAvailableItems() {
+        when(itemRepository.findItemsByAvailableTrueAndIdGreaterThanOrderById(Mockito.eq(0L),
+                Mockito.any(Pageable.class)))
+                .thenReturn(List.of(makeItem(1L, "Дрель", "Простая дрель", true),
+                        makeItem(2L, "Отвертка", "Аккумуляторная отвертка", true)));
+
+        itemSearchIndex.rebuild();
+
+        assertEquals(2, itemSearchIndex.size());
+        assertEquals(List.of(2L), ids(itemSearchIndex.search("аккумулятор", null, null)));
+    }
+
+    @Test
+    void rebuild_whenIndexDisabled_thenRepositoryNotInvoked() {
+        itemSearchIndex = new ItemSearchIndex(itemRepository, false);
+
+        itemSearchIndex.rebuild();
+
+        assertFalse(itemSearchIndex.isEnabled());
+        verify(itemRepository, never()).findItemsByAvailableTrueAndIdGreaterThanOrderById(Mockito.anyLong(),
+                Mockito.any(Pageable.class));
+    }
+
+    @Test
+    void search_whenSubstringInNameOrDescription_thenReturnItemsRankedByRelevance() {
+        itemSearchIndex.put(makeItem(1L, "Другое", "Дрель ударная", true));
+        itemSearchIndex.put(makeItem(2L, "Ударная дрель", "Другое", true));
+        itemSearchIndex.put(makeItem(3L, "Дрель ударная", "Другое", true));
+        itemSearchIndex.put(makeItem(4L, "ДРЕЛЬ", "Другое", true));
+        itemSearchIndex.put(makeItem(5L, "Молоток", "Другое", true));
+
+        assertEquals(List.of(4L, 3L, 2L, 1L), ids(itemSearchIndex.search("дрель", null, null)));
+    }
+
+    @Test
+    void search_whenGramsPresentButNotSubstring_thenItemNotReturned() {
+        itemSearchIndex.put(makeItem(1L, "abc xbcd", "description", true));
+
+        assertEquals(List.of(), itemSearchIndex.search("abcd", null, null));
+    }
+
+    @Test
+    void search_whenQueryShorterThanGram_thenMatchBySubstring() {
+        itemSearchIndex.put(makeItem(1L, "Дрель", "description", true));
+        itemSearchIndex.put(makeItem(2L, "Пила", "description", true));
+
+        assertEquals(List.of(2L), ids(itemSearchIndex.search("ил", null, null)));
+    }
+
+    @Test
+    void search_whenPageRequested_thenReturnOnlyPage() {
+        itemSearchIndex.put(makeItem(1L, "item_1", "description", true));
+        itemSearchIndex.put(makeItem(2L, "item_2", "description", true));
+        itemSearchIndex.put(makeItem(3L, "item_3", "description", true));
+
+        assertEquals(List.of(2L), ids(itemSearchIndex.search("item", 1, 1)));
+    }
+
+    @Test
+    void put_whenItemUpdated_thenOldTextNoLongerFound() {
+        itemSearchIndex.put(makeItem(1L, "Дрель", "description", true));
+        itemSearchIndex.put(makeItem(1L, "Пила", "description", true));
+
+        assertEquals(List.of(), itemSearchIndex.search("дрель", null, null));
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("пила", null, null)));
+    }
+
+    @Test
+    void put_whenItemBecomesUnavailable_thenItemRemovedFromIndex() {
+        itemSearchIndex.put(makeItem(1L, "Дрель", "description", true));
+        itemSearchIndex.put(makeItem(1L, "Дрель", "description", false));
+
+        assertEquals(0, itemSearchIndex.size());
+        assertEquals(List.of(), itemSearchIndex.search("дрель", null, null));
+    }
+
+    @Test
+    void put_whenOlderVersionCommittedLater_thenNewerTextKept() {
+        Item newer = makeItem(1L, "Пила", "description", true);
+        newer.setVersion(2L);
+        Item older = makeItem(1L, "Дрель", "description", true);
+        older.setVersion(1L);
+
+        itemSearchIndex.put(newer);
+        itemSearchIndex.put(older);
+
+        assertEquals(List.of(), itemSearchIndex.search("дрель", null, null));
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("пила", null, null)));
+    }
+
+    @Test
+    void put_whenOlderAvailableVersionAfterRemoval_thenItemNotReturned() {
+        Item unavailable = makeItem(1L, "Дрель", "description", false);
+        unavailable.setVersion(2L);
+        Item older = makeItem(1L, "Дрель", "description", true);
+        older.setVersion(1L);
+
+        itemSearchIndex.put(unavailable);
+        itemSearchIndex.put(older);
+
+        assertEquals(0, itemSearchIndex.size());
+    }
+
+    @Test
+    void put_whenVersionIncrementedOnCommit_thenVersionReadAfterCommit() {
+        Item item = makeItem(1L, "Дрель", "description", true);
+        item.setVersion(1L);
+        itemSearchIndex.put(item);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            Item updated = makeItem(1L, "Пила", "description", true);
+            updated.setVersion(1L);
+            itemSearchIndex.put(updated);
+            Item stale = makeItem(1L, "Молоток", "description", true);
+            stale.setVersion(1L);
+            itemSearchIndex.put(stale);
+            updated.setVersion(2L);
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.get(0).afterCommit();
+            synchronizations.get(1).afterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("пила", null, null)));
+        assertEquals(List.of(), itemSearchIndex.search("молоток", null, null));
+    }
+
+    @Test
+    void search_whenCaseDiffers_thenMatchWithoutStoringFoldedText() {
+        itemSearchIndex.put(makeItem(1L, "Дрель Bosch", "Ударная ДРЕЛЬ", true));
+
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("bOsCh", null, null)));
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("ударная дрель", null, null)));
+    }
+
+    @Test
+    void stream_whenMatchesSpanSeveralBatches_thenEmitAllInIdOrder() {
+        List<Long> expected = new ArrayList<>();
+
+        for (long id = 1_200; id >= 1; id--) {
+            itemSearchIndex.put(makeItem(id, id % 3 == 0 ? "Дрель " + id : "Пила " + id, "description", true));
+
+            if (id % 3 == 0) {
+                expected.add(0, id);
+            }
+        }
+
+        List<ItemView> actual = new ArrayList<>();
+        itemSearchIndex.stream("дрель", actual::add);
+
+        assertEquals(expected, ids(actual));
+    }
+
+    @Test
+    void stream_whenQueryShorterThanGram_thenEmitInIdOrder() {
+        itemSearchIndex.put(makeItem(3L, "Дрель", "description", true));
+        itemSearchIndex.put(makeItem(1L, "Пила", "Дрель ручная", true));
+        itemSearchIndex.put(makeItem(2L, "Молоток", "description", true));
+        itemSearchIndex.put(makeItem(4L, "Дрель", "description", false));
+
+        List<ItemView> actual = new ArrayList<>();
+        itemSearchIndex.stream("ре", actual::add);
+
+        assertEquals(List.of(1L, 3L), ids(actual));
+    }
+
+    @Test
+    void stream_whenConsumerUpdatesIndex_thenLockNotHeldWhileConsuming() {
+        itemSearchIndex.put(makeItem(1L, "Дрель", "description", true));
+        itemSearchIndex.put(makeItem(2L, "Дрель", "description", true));
+        List<ItemView> actual = new ArrayList<>();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> itemSearchIndex.stream("дрель", itemView -> {
+            actual.add(itemView);
+            itemSearchIndex.put(makeItem(3L, "Дрель", "description", true));
+        }));
+
+        assertEquals(List.of(1L, 2L), ids(actual));
+        assertEquals(3, itemSearchIndex.size());
+    }
+
+    @Test
+    void search_whenItemHasRequest_thenReturnItemViewWithRequestId() {
+        Item item = makeItem(1L, "Дрель", "description", true);
+        item.setRequest(new ItemRequest(7L, "request", null, null, null));
+        itemSearchIndex.put(item);
+
+        ItemView actual = itemSearchIndex.search("дрель", null, null).get(0);
+
+        assertEquals(7L, actual.getRequestId());
+        assertEquals("Дрель", actual.getName());
+        assertTrue(actual.getAvailable());
+    }
+
+    @Test
+    void removeByOwnerId_whenOwnerDeleted_thenOnlyOwnerItemsRemoved() {
+        User owner = new User(1L, "owner", "owner@email.com");
+        User other = new User(2L, "other", "other@email.com");
+
+        for (long id = 1; id <= 100; id++) {
+            itemSearchIndex.put(new Item(id, "Дрель " + id, "description", true, id % 2 == 0 ? owner : other,
+                    null, null));
+        }
+
+        itemSearchIndex.removeByOwnerId(1L);
+
+        assertEquals(50, itemSearchIndex.size());
+        assertTrue(ids(itemSearchIndex.search("дрель", null, null)).stream().allMatch(id -> id % 2 == 1));
+    }
+
+    @Test
+    void put_whenInvokedInTransaction_thenItemIndexedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemSearchIndex.put(makeItem(1L, "Дрель", "description", true));
+
+            assertEquals(0, itemSearchIndex.size());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("дрель", null, null)));
+    }
+
+    @Test
+    void rebuild_whenItemPutDuringRebuild_thenPutNotLost() {
+        when(itemRepository.findItemsByAvailableTrueAndIdGreaterThanOrderById(Mockito.eq(0L),
+                Mockito.any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    itemSearchIndex.put(makeItem(1L, "Пила", "description", true));
+                    itemSearchIndex.put(makeItem(2L, "Молоток", "description", true));
+
+                    return List.of(makeItem(1L, "Дрель", "description", true));
+                });
+
+        itemSearchIndex.rebuild();
+
+        assertEquals(2, itemSearchIndex.size());
+        assertEquals(List.of(), itemSearchIndex.search("дрель", null, null));
+        assertEquals(List.of(1L), ids(itemSearchIndex.search("пила", null, null)));
+        assertEquals(List.of(2L), ids(itemSearchIndex.search("молоток", null, null)));
+    }
+
+    private Item makeItem(Long id, String name, String description, Boolean available) {
+        return new Item(id, name, description, available, null, null, null);
+    }
+
+    private List<Long> ids(List<ItemView> itemViews) {
+        return itemViews.stream().map(ItemView::getId).collect(Collectors.toList());
+    }
+}
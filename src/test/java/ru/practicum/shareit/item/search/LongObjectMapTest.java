@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongObjectMapTest {
+    @Test
+    void putAndRemove_whenRandomOperations_thenSameContentAsHashMap() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextInt(2_000);
+
+            if (random.nextBoolean()) {
+                map.put(key, "value_" + i);
+                expected.put(key, "value_" + i);
+            } else {
+                assertEquals(expected.remove(key), map.remove(key));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        assertArrayEquals(expected.keySet().stream().mapToLong(Long::longValue).sorted().toArray(),
+                Arrays.stream(map.keys()).sorted().toArray());
+    }
+
+    @Test
+    void get_whenKeyAbsent_thenReturnNull() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        map.put(1L, "value");
+
+        assertNull(map.get(2L));
+        assertNull(map.remove(2L));
+    }
+}
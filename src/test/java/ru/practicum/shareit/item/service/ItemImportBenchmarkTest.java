@@ -0,0 +1,102 @@
+package ru.practicum.shareit.item.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemCreateUpdateDto;
+import ru.practicum.shareit.item.dto.ItemImportView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Импорт 1 000 000 вещей из NDJSON, который генерируется по мере чтения:
+ * скорость импорта и пиковое использование кучи, которое не должно зависеть от размера тела запроса.
+ * Запуск: mvn test -P benchmark
+ */
+@SpringBootTest
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class ItemImportBenchmarkTest {
+    private static final int ROWS = 1_000_000;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importItems_whenMillionRows_thenHeapUsageBounded() throws Exception {
+        User owner = userRepository.save(new User(null, "owner", "import_owner@email.com"));
+
+        System.gc();
+        ManagementFactory.getMemoryPoolMXBeans().forEach(MemoryPoolMXBean::resetPeakUsage);
+        long startNanos = System.nanoTime();
+        ItemImportView importView;
+
+        try (MappingIterator<ItemCreateUpdateDto> rows = objectMapper.readerFor(ItemCreateUpdateDto.class)
+                .readValues(ndjson(ROWS))) {
+            importView = itemService.importItems(owner.getId(), rows);
+        }
+
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        long peakHeapBytes = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .mapToLong(pool -> pool.getPeakUsage().getUsed())
+                .sum();
+
+        System.out.printf("rows=%d created=%d failed=%d time=%dms rows_per_second=%.0f peak_heap=%dMB%n",
+                importView.getTotal(), importView.getCreated(), importView.getFailed(), elapsedMillis,
+                importView.getTotal() * 1000.0 / Math.max(elapsedMillis, 1), peakHeapBytes / (1024 * 1024));
+
+        assertEquals(ROWS, importView.getCreated());
+    }
+
+    private static InputStream ndjson(int rows) {
+        return new SequenceInputStream(new Enumeration<>() {
+            private int row = 0;
+
+            @Override
+            public boolean hasMoreElements() {
+                return row < rows;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                row++;
+                String line = "{\"name\":\"item_" + row + "\",\"description\":\"description_" + row
+                        + "\",\"available\":true}\n";
+
+                return new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8));
+            }
+        });
+    }
+}
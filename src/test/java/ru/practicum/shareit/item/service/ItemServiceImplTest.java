@@ -1,19 +1,31 @@
 package ru.practicum.shareit.item.service;
 
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.exeption.BadRequestException;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.availability.BusyIntervals;
+import ru.practicum.shareit.item.availability.ItemAvailabilityCache;
 import ru.practicum.shareit.item.dto.CommentRequest;
 import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemAvailabilityView;
 import ru.practicum.shareit.item.dto.ItemCreateUpdateDto;
+import ru.practicum.shareit.item.dto.ItemImportErrorView;
+import ru.practicum.shareit.item.dto.ItemImportView;
 import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -21,13 +33,24 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.shareitutils.etag.ContentStamp;
+import ru.practicum.shareit.shareitutils.pageable.OffsetPageRequest;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+import javax.validation.Validator;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.never;
@@ -42,18 +65,28 @@ class ItemServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
     @Mock
-    private UserRepository userRepository;
+    private UserLookup userLookup;
     @Mock
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private ItemAvailabilityCache itemAvailabilityCache;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
 
     @InjectMocks
     private ItemServiceImpl itemService;
 
     @Test
     void getUserItems_whenInvalidUserId_thenNotFoundExceptionThrown() {
-        when(userRepository.findById(1L))
+        when(userLookup.findUserById(1L))
                 .thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
@@ -65,12 +98,12 @@ class ItemServiceImplTest {
         assertEquals("Пользователь с идентификатором 1 не найден",
                 exception.getMessage());
 
-        verify(userRepository, times(1)).findById(1L);
+        verify(userLookup, times(1)).findUserById(1L);
     }
 
     @Test
     void getUserItems_whenUserItemListEmpty_thenReturnEmptyList() {
-        when(userRepository.findById((1L)))
+        when(userLookup.findUserById((1L)))
                 .thenReturn(Optional.of(new User()));
 
         final List<ItemView> actual = itemService.getUserItems(1L);
@@ -78,7 +111,7 @@ class ItemServiceImplTest {
         assertNotNull(actual);
         assertEquals(0, actual.size());
 
-        verify(userRepository, times(1)).findById(1L);
+        verify(userLookup, times(1)).findUserById(1L);
     }
 
     @Test
@@ -88,7 +121,7 @@ class ItemServiceImplTest {
         final Item item = new Item();
         item.setId(11L);
 
-        when(userRepository.findById((1L)))
+        when(userLookup.findUserById((1L)))
                 .thenReturn(Optional.of(user));
 
         when(itemRepository.findItemsByOwnerIdOrderById(1L))
@@ -99,17 +132,47 @@ class ItemServiceImplTest {
         assertNotNull(actual);
         assertEquals(1, actual.size());
 
-        verify(userRepository, times(1)).findById(1L);
+        verify(userLookup, times(1)).findUserById(1L);
         verify(itemRepository, times(1)).findItemsByOwnerIdOrderById(1L);
     }
 
+    @Test
+    void getUserItems_whenItemsHaveBookings_thenAttachBookingInfoToEachItem() {
+        final User user = new User(1L, "owner", "owner@email.com");
+        final User booker = new User(2L, "booker", "booker@email.com");
+        final Item item1 = new Item(11L, "name_1", "description_1", true, user, null, null);
+        final Item item2 = new Item(12L, "name_2", "description_2", true, user, null, null);
+        final Booking lastBooking = new Booking(21L, LocalDateTime.now().minusDays(2),
+                LocalDateTime.now().minusDays(1), item1, booker, null, null);
+        final Booking nextBooking = new Booking(22L, LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2), item2, booker, null, null);
+
+        when(userLookup.findUserById((1L)))
+                .thenReturn(Optional.of(user));
+        when(itemRepository.findItemsByOwnerIdOrderById(1L))
+                .thenReturn(List.of(item1, item2));
+        when(bookingRepository.findLastBookingByItemIds(Mockito.anyList(), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(lastBooking));
+        when(bookingRepository.findNextBookingByItemIds(Mockito.anyList(), Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(nextBooking));
+
+        final List<ItemView> actual = itemService.getUserItems(1L);
+
+        assertEquals(2, actual.size());
+        assertEquals(21L, actual.get(0).getLastBooking().getId());
+        assertNull(actual.get(0).getNextBooking());
+        assertNull(actual.get(1).getLastBooking());
+        assertEquals(22L, actual.get(1).getNextBooking().getId());
+        assertEquals(2L, actual.get(1).getNextBooking().getBookerId());
+    }
+
     @Test
     void getItemById_whenInvalidItemId_thenNotFoundExceptionThrown() {
         when(itemRepository.findById(1L)).thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
                 NotFoundException.class,
-                () -> itemService.getItemById(1L, 1L)
+                () -> itemService.getItemById(1L, 1L, null, null)
         );
 
         assertNotNull(exception);
@@ -134,7 +197,7 @@ class ItemServiceImplTest {
         final ItemView itemView = ItemMapper.toItemView(item);
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
 
-        final ItemView actual = itemService.getItemById(1L, 1L);
+        final ItemView actual = itemService.getItemById(1L, 1L, null, null);
 
         assertNotNull(actual);
         assertEquals(itemView, actual);
@@ -157,7 +220,7 @@ class ItemServiceImplTest {
         final ItemView itemView = ItemMapper.toItemView(item);
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
 
-        final ItemView actual = itemService.getItemById(2L, 1L);
+        final ItemView actual = itemService.getItemById(2L, 1L, null, null);
 
         assertNotNull(actual);
         assertEquals(itemView, actual);
@@ -170,31 +233,330 @@ class ItemServiceImplTest {
         verify(commentRepository, times(1)).findCommentsByItemIds(Mockito.anyList());
     }
 
+    @Test
+    void getItemById_whenCommentsSizeSet_thenReturnOnlyCommentsPage() {
+        final User owner = new User(1L, "owner", "owner@email.com");
+        final User author = new User(2L, "author", "author@email.com");
+        final Item item = new Item(1L, "name", "description", true, owner, null, null);
+        final Comment comment = new Comment(1L, "text", item, author, LocalDateTime.now());
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(commentRepository.findCommentsByItemIdPageable(1L, OffsetPageRequest.of(10, 5)))
+                .thenReturn(List.of(comment));
+
+        final ItemView actual = itemService.getItemById(2L, 1L, 10, 5);
+
+        assertEquals(List.of(CommentMapper.toCommentView(comment)), actual.getComments());
+
+        verify(commentRepository, times(1)).findCommentsByItemIdPageable(1L, OffsetPageRequest.of(10, 5));
+        verify(commentRepository, never()).findCommentsByItemIds(Mockito.anyList());
+    }
+
+    @Test
+    void getItemETag_whenInvokedFromOwner_thenETagChangesWithBookingsAndItemIsNotBuilt() {
+        final User owner = new User(1L, "owner", "owner@email.com");
+        final Item item = new Item(1L, "name", "description", true, owner, null, 0L);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(commentRepository.findCommentStampByItemIds(List.of(1L))).thenReturn(new ContentStamp(1L, 5L, 0L));
+        when(bookingRepository.findBookingStampByItemIds(Mockito.eq(List.of(1L)), Mockito.any(LocalDateTime.class)))
+                .thenReturn(new ContentStamp(1L, 7L, 0L), new ContentStamp(1L, 7L, 1L));
+
+        final String etag = itemService.getItemETag(1L, 1L);
+        final String etagAfterApprove = itemService.getItemETag(1L, 1L);
+
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertNotEquals(etag, etagAfterApprove);
+
+        verify(bookingRepository, never()).findLastBookingByItemIds(Mockito.anyList(),
+                Mockito.any(LocalDateTime.class));
+        verify(bookingRepository, never()).findNextBookingByItemIds(Mockito.anyList(),
+                Mockito.any(LocalDateTime.class));
+        verify(commentRepository, never()).findCommentsByItemIds(Mockito.anyList());
+    }
+
+    @Test
+    void getItemETag_whenInvokedFromNotOwner_thenBookingsNotQueriedAndETagChangesWithItemVersion() {
+        final User owner = new User(1L, "owner", "owner@email.com");
+        final Item item = new Item(1L, "name", "description", true, owner, null, 0L);
+        final Item updatedItem = new Item(1L, "new name", "description", true, owner, null, 1L);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item), Optional.of(updatedItem));
+        when(commentRepository.findCommentStampByItemIds(List.of(1L))).thenReturn(new ContentStamp(0L, 0L, 0L));
+
+        assertNotEquals(itemService.getItemETag(2L, 1L), itemService.getItemETag(2L, 1L));
+
+        verify(bookingRepository, never()).findBookingStampByItemIds(Mockito.anyCollection(),
+                Mockito.any(LocalDateTime.class));
+    }
+
+    @Test
+    void getUserItemsETag_whenCommentAdded_thenETagChanged() {
+        final User user = new User(1L, "owner", "owner@email.com");
+        final Item item1 = new Item(11L, "name_1", "description_1", true, user, null, 0L);
+        final Item item2 = new Item(12L, "name_2", "description_2", true, user, null, 3L);
+        when(userLookup.findUserById(1L)).thenReturn(Optional.of(user));
+        when(itemRepository.findItemsByOwnerIdOrderById(1L)).thenReturn(List.of(item1, item2));
+        when(bookingRepository.findBookingStampByItemIds(Mockito.eq(List.of(11L, 12L)),
+                Mockito.any(LocalDateTime.class))).thenReturn(new ContentStamp(0L, 0L, 0L));
+        when(commentRepository.findCommentStampByItemIds(List.of(11L, 12L)))
+                .thenReturn(new ContentStamp(1L, 1L, 0L), new ContentStamp(2L, 2L, 0L));
+
+        assertNotEquals(itemService.getUserItemsETag(1L), itemService.getUserItemsETag(1L));
+
+        verify(commentRepository, never()).findCommentsByItemIds(Mockito.anyList());
+    }
+
+    @Test
+    void getItemETag_whenCommentAuthorRenamed_thenETagChanged() {
+        final User owner = new User(1L, "owner", "owner@email.com");
+        final Item item = new Item(1L, "name", "description", true, owner, null, 0L);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(commentRepository.findCommentStampByItemIds(List.of(1L)))
+                .thenReturn(new ContentStamp(1L, 5L, 0L), new ContentStamp(1L, 5L, 1L));
+
+        assertNotEquals(itemService.getItemETag(2L, 1L), itemService.getItemETag(2L, 1L));
+    }
+
+    @Test
+    void getUserItems_whenItemsHaveComments_thenAttachCommentsToEachItem() {
+        final User user = new User(1L, "owner", "owner@email.com");
+        final User author = new User(2L, "author", "author@email.com");
+        final Item item1 = new Item(11L, "name_1", "description_1", true, user, null, null);
+        final Item item2 = new Item(12L, "name_2", "description_2", true, user, null, null);
+        final Comment comment1 = new Comment(1L, "text_1", item2, author, LocalDateTime.now().minusDays(1));
+        final Comment comment2 = new Comment(2L, "text_2", item2, author, LocalDateTime.now());
+        when(userLookup.findUserById(1L)).thenReturn(Optional.of(user));
+        when(itemRepository.findItemsByOwnerIdOrderById(1L)).thenReturn(List.of(item1, item2));
+        when(commentRepository.findCommentsByItemIds(List.of(11L, 12L))).thenReturn(List.of(comment1, comment2));
+
+        final List<ItemView> actual = itemService.getUserItems(1L);
+
+        assertEquals(0, actual.get(0).getComments().size());
+        assertEquals(CommentMapper.toCommentView(List.of(comment1, comment2)), actual.get(1).getComments());
+    }
+
     @Test
     void searchItems_whenInvoked_thenReturnItemViewList() {
         final List<Item> items = List.of(new Item());
         final List<ItemView> itemViews = ItemMapper.toItemView(items);
-        when(itemRepository.findItemBySearchText(Mockito.anyString()))
+        when(itemRepository.findItemBySearchText(Mockito.anyString(), Mockito.any(Pageable.class)))
                 .thenReturn(items);
 
-        final List<ItemView> actual = itemService.searchItems("text");
+        final List<ItemView> actual = itemService.searchItems("text", null, null);
 
         assertNotNull(actual);
         assertEquals(1, actual.size());
         assertEquals(itemViews, actual);
     }
 
+    @Test
+    void searchItems_whenSizeSet_thenSearchWithOffsetPage() {
+        when(itemRepository.findItemBySearchText("text", OffsetPageRequest.of(20, 10)))
+                .thenReturn(List.of(new Item()));
+
+        final List<ItemView> actual = itemService.searchItems("text", 20, 10);
+
+        assertEquals(1, actual.size());
+        verify(itemRepository, times(1)).findItemBySearchText("text", OffsetPageRequest.of(20, 10));
+    }
+
+    @Test
+    void searchItems_whenSearchIndexEnabled_thenSearchInIndexWithoutRepository() {
+        final List<ItemView> itemViews = List.of(new ItemView());
+        when(itemSearchIndex.isEnabled()).thenReturn(true);
+        when(itemSearchIndex.search("text", 0, 10)).thenReturn(itemViews);
+
+        final List<ItemView> actual = itemService.searchItems("text", 0, 10);
+
+        assertEquals(itemViews, actual);
+        verify(itemRepository, never()).findItemBySearchText(Mockito.anyString(), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    void streamSearchItems_whenInvoked_thenPassEachItemViewToConsumerAndDetachItem() {
+        final Item item1 = new Item(1L, "name_1", "description_1", true, null, null, null);
+        final Item item2 = new Item(2L, "name_2", "description_2", true, null, null, null);
+        final List<ItemView> actual = new ArrayList<>();
+        final Session session = Mockito.mock(Session.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+        when(itemRepository.streamItemBySearchText("name"))
+                .thenReturn(Stream.of(item1, item2));
+
+        itemService.streamSearchItems("name", actual::add);
+
+        assertEquals(ItemMapper.toItemView(List.of(item1, item2)), actual);
+        verify(entityManager, times(1)).detach(item1);
+        verify(entityManager, times(1)).detach(item2);
+        InOrder inOrder = Mockito.inOrder(session, itemRepository);
+        inOrder.verify(session).setCacheMode(CacheMode.IGNORE);
+        inOrder.verify(itemRepository).streamItemBySearchText("name");
+        inOrder.verify(session).setCacheMode(CacheMode.NORMAL);
+    }
+
+    @Test
+    void streamSearchItems_whenIndexEnabled_thenStreamFromIndex() {
+        final Consumer<ItemView> consumer = itemView -> { };
+        when(itemSearchIndex.isEnabled()).thenReturn(true);
+
+        itemService.streamSearchItems("name", consumer);
+
+        verify(itemSearchIndex, times(1)).stream("name", consumer);
+        verify(itemRepository, never()).streamItemBySearchText(Mockito.anyString());
+    }
+
+    @Test
+    void streamSearchItems_whenSearchTextIsBlank_thenRepositoryNotInvoked() {
+        final List<ItemView> actual = new ArrayList<>();
+
+        itemService.streamSearchItems(" ", actual::add);
+
+        assertEquals(0, actual.size());
+        verify(itemRepository, never()).streamItemBySearchText(Mockito.anyString());
+    }
+
     @Test
     void searchItems_whenSearchTextIsBlank_thenReturnEmptyList() {
-        final List<ItemView> actual = itemService.searchItems("");
+        final List<ItemView> actual = itemService.searchItems("", null, null);
 
         assertNotNull(actual);
         assertEquals(0, actual.size());
     }
 
+    @Test
+    void getItemAvailability_whenInvoked_thenReturnAvailabilityFromCachedIntervals() {
+        final LocalDateTime from = LocalDateTime.of(2024, 8, 1, 0, 0);
+        final Item item = new Item(1L, "name", "description", true, null, null, null);
+        final Booking booking = new Booking(1L, from.plusDays(1), from.plusDays(2), item, null, null, null);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemAvailabilityCache.getBusyIntervals(1L, from)).thenReturn(BusyIntervals.of(List.of(booking)));
+
+        final ItemAvailabilityView actual = itemService.getItemAvailability(1L, from, from.plusDays(3));
+
+        assertEquals(1, actual.getBusy().size());
+        assertEquals(2, actual.getFree().size());
+        verify(itemAvailabilityCache, times(1)).getBusyIntervals(1L, from);
+    }
+
+    @Test
+    void getItemAvailability_whenFromNotBeforeTo_thenBadRequestExceptionThrown() {
+        final LocalDateTime from = LocalDateTime.of(2024, 8, 1, 0, 0);
+
+        final BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> itemService.getItemAvailability(1L, from, from)
+        );
+
+        assertEquals("Начало периода должно быть раньше его окончания", exception.getMessage());
+        verify(itemAvailabilityCache, never()).getBusyIntervals(Mockito.anyLong(), Mockito.any(LocalDateTime.class));
+    }
+
+    @Test
+    void getItemAvailability_whenPeriodTooLong_thenBadRequestExceptionThrown() {
+        final LocalDateTime from = LocalDateTime.of(2024, 8, 1, 0, 0);
+
+        final BadRequestException exception = assertThrows(
+                BadRequestException.class,
+                () -> itemService.getItemAvailability(1L, from, from.plusYears(2))
+        );
+
+        assertEquals("Период не должен превышать 366 дней", exception.getMessage());
+        verify(itemRepository, never()).findById(Mockito.anyLong());
+    }
+
+    @Test
+    void importItems_whenRowsValid_thenItemsSavedAndSummaryReturned() {
+        final User user = new User(1L, "user", "user@mail.com");
+        final Iterator<ItemCreateUpdateDto> rows = List.of(
+                new ItemCreateUpdateDto("name_1", "description_1", true, null),
+                new ItemCreateUpdateDto("name_2", "description_2", true, 5L),
+                new ItemCreateUpdateDto("name_3", "description_3", false, 5L)).iterator();
+
+        when(userLookup.findUserById(1L)).thenReturn(Optional.of(user));
+        when(itemRequestRepository.findExistingItemRequestIds(Set.of(5L))).thenReturn(List.of(5L));
+        when(itemRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        final ItemImportView actual = itemService.importItems(1L, rows);
+
+        assertEquals(3, actual.getTotal());
+        assertEquals(3, actual.getCreated());
+        assertEquals(0, actual.getFailed());
+        assertEquals(List.of(), actual.getErrors());
+
+        verify(userLookup, times(1)).findUserById(1L);
+        verify(itemRequestRepository, times(1)).findExistingItemRequestIds(Mockito.anyCollection());
+        verify(itemRepository, times(1)).saveAll(Mockito.anyList());
+        verify(itemSearchIndex, times(3)).put(Mockito.any(Item.class));
+    }
+
+    @Test
+    void importItems_whenRowInvalidOrRequestNotFound_thenRowReportedAndOtherRowsSaved() {
+        final User user = new User(1L, "user", "user@mail.com");
+        final Iterator<ItemCreateUpdateDto> rows = List.of(
+                new ItemCreateUpdateDto("name_1", "description_1", true, null),
+                new ItemCreateUpdateDto("", "description_2", true, null),
+                new ItemCreateUpdateDto("name_3", "description_3", true, 7L)).iterator();
+
+        when(userLookup.findUserById(1L)).thenReturn(Optional.of(user));
+        when(itemRequestRepository.findExistingItemRequestIds(Set.of(7L))).thenReturn(List.of());
+        when(itemRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        final ItemImportView actual = itemService.importItems(1L, rows);
+
+        assertEquals(3, actual.getTotal());
+        assertEquals(1, actual.getCreated());
+        assertEquals(2, actual.getFailed());
+        assertEquals(2L, actual.getErrors().get(0).getRow());
+        assertTrue(actual.getErrors().get(0).getMessage().startsWith("name: "));
+        assertEquals(new ItemImportErrorView(3L, "Запрос вещи с идентификатором 7 не найден"),
+                actual.getErrors().get(1));
+    }
+
+    @Test
+    void importItems_whenRowNotMapped_thenRowReportedAndReadingContinued() {
+        final User user = new User(1L, "user", "user@mail.com");
+        final Iterator<ItemCreateUpdateDto> rows = new Iterator<>() {
+            private int row = 0;
+
+            @Override
+            public boolean hasNext() {
+                return row < 2;
+            }
+
+            @Override
+            public ItemCreateUpdateDto next() {
+                row++;
+
+                if (row == 1) {
+                    throw new RuntimeJsonMappingException("Cannot deserialize value");
+                }
+
+                return new ItemCreateUpdateDto("name", "description", true, null);
+            }
+        };
+
+        when(userLookup.findUserById(1L)).thenReturn(Optional.of(user));
+        when(itemRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        final ItemImportView actual = itemService.importItems(1L, rows);
+
+        assertEquals(2, actual.getTotal());
+        assertEquals(1, actual.getCreated());
+        assertEquals(List.of(new ItemImportErrorView(1L, "Cannot deserialize value")), actual.getErrors());
+    }
+
+    @Test
+    void importItems_whenInvalidUserId_thenNotFoundExceptionThrown() {
+        when(userLookup.findUserById(1L)).thenReturn(Optional.empty());
+
+        final Iterator<ItemCreateUpdateDto> rows = List.<ItemCreateUpdateDto>of().iterator();
+
+        assertThrows(NotFoundException.class, () -> itemService.importItems(1L, rows));
+
+        verify(itemRepository, never()).saveAll(Mockito.anyList());
+    }
+
     @Test
     void create_whenInvokedWithInvalidUserId_thenNotFoundExceptionThrownAndNotCreatItem() {
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userLookup.findUserById(1L)).thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -205,7 +567,7 @@ class ItemServiceImplTest {
         assertEquals("Пользователь с идентификатором 1 не найден",
                 exception.getMessage());
 
-        verify(userRepository, Mockito.times(1)).findById(1L);
+        verify(userLookup, Mockito.times(1)).findUserById(1L);
         verify(itemRepository, never()).save(Mockito.any(Item.class));
     }
 
@@ -216,16 +578,17 @@ class ItemServiceImplTest {
         final Item item = ItemMapper.fromItemCreateUpdateDto(itemCreateUpdateDto);
         item.setOwner(user);
 
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(user));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(user));
         when(itemRepository.save(item)).thenReturn(item);
 
         ItemView actual = itemService.create(1L, itemCreateUpdateDto);
 
         assertEquals(ItemMapper.toItemView(item), actual);
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(itemRequestRepository, never()).findById(Mockito.anyLong());
         verify(itemRepository, times(1)).save(item);
+        verify(itemSearchIndex, times(1)).put(item);
     }
 
     @Test
@@ -239,7 +602,7 @@ class ItemServiceImplTest {
         item.setRequest(itemRequest);
         item.setOwner(user);
 
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(user));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(user));
         when(itemRequestRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(itemRequest));
         when(itemRepository.save(item)).thenReturn(item);
 
@@ -247,7 +610,7 @@ class ItemServiceImplTest {
 
         assertEquals(ItemMapper.toItemView(item), actual);
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(itemRequestRepository, times(1)).findById(Mockito.anyLong());
         verify(itemRepository, times(1)).save(item);
     }
@@ -258,7 +621,7 @@ class ItemServiceImplTest {
         final ItemCreateUpdateDto itemCreateUpdateDto = new ItemCreateUpdateDto();
         itemCreateUpdateDto.setRequestId(1L);
 
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(user));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(user));
         when(itemRequestRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
@@ -269,7 +632,7 @@ class ItemServiceImplTest {
         assertNotNull(exception);
         assertEquals("Запрос вещи с идентификатором 1 не найден", exception.getMessage());
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(itemRequestRepository, times(1)).findById(Mockito.anyLong());
         verify(itemRepository, never()).save(Mockito.any(Item.class));
     }
@@ -293,7 +656,7 @@ class ItemServiceImplTest {
     @Test
     void update_whenInvalidUserId_thenNotFoundExceptionThrown() {
         when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(new Item()));
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -304,7 +667,7 @@ class ItemServiceImplTest {
         assertEquals("Пользователь с идентификатором 1 не найден", exception.getMessage());
 
         verify(itemRepository, times(1)).findById(1L);
-        verify(userRepository, times(1)).findById(1L);
+        verify(userLookup, times(1)).findUserById(1L);
         verify(itemRepository, never()).save(Mockito.any(Item.class));
     }
 
@@ -318,7 +681,7 @@ class ItemServiceImplTest {
         item.setId(1L);
         item.setOwner(owner);
         when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(item));
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(user));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(user));
 
         final NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -329,7 +692,7 @@ class ItemServiceImplTest {
         assertEquals("Пользователь не владеет вещью с идентификатором 1", exception.getMessage());
 
         verify(itemRepository, times(1)).findById(1L);
-        verify(userRepository, times(1)).findById(1L);
+        verify(userLookup, times(1)).findUserById(1L);
         verify(itemRepository, never()).save(Mockito.any(Item.class));
     }
 
@@ -345,7 +708,7 @@ class ItemServiceImplTest {
         item.setId(1L);
         item.setOwner(user);
         when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(item));
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(user));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(user));
         when(itemRepository.save(item)).thenReturn(item);
 
         ItemView actual = itemService.update(1L, 1L, itemCreateUpdateDto);
@@ -354,13 +717,14 @@ class ItemServiceImplTest {
         assertEquals(ItemMapper.toItemView(item), actual);
 
         verify(itemRepository, times(1)).findById(1L);
-        verify(userRepository, times(1)).findById(1L);
+        verify(userLookup, times(1)).findUserById(1L);
         verify(itemRepository, times(1)).save(Mockito.any(Item.class));
+        verify(itemSearchIndex, times(1)).put(item);
     }
 
     @Test
     void createComment_whenInvalidUserId_thenNotFoundExceptionThrown() {
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -370,13 +734,13 @@ class ItemServiceImplTest {
         assertNotNull(exception);
         assertEquals("Пользователь с идентификатором 1 не найден", exception.getMessage());
 
-        verify(userRepository, times(1)).findById(1L);
+        verify(userLookup, times(1)).findUserById(1L);
         verify(commentRepository, never()).save(Mockito.any(Comment.class));
     }
 
     @Test
     void createComment_whenInvalidItemId_thenNotFoundExceptionThrown() {
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
         when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
@@ -387,14 +751,14 @@ class ItemServiceImplTest {
         assertNotNull(exception);
         assertEquals("Вещь с идентификатором 1 не найдена", exception.getMessage());
 
-        verify(userRepository, times(1)).findById(1L);
+        verify(userLookup, times(1)).findUserById(1L);
         verify(itemRepository, times(1)).findById(1L);
         verify(commentRepository, never()).save(Mockito.any(Comment.class));
     }
 
     @Test
     void createComment_whenUserNotHaveCompletedBooking_thenBadRequestExceptionThrown() {
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
         when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(new Item()));
         when(bookingRepository.findBookingForAllowCommentPageable(Mockito.anyLong(), Mockito.anyLong(),
                 Mockito.any(LocalDateTime.class), Mockito.any(PageRequest.class))).thenReturn(List.of());
@@ -408,7 +772,7 @@ class ItemServiceImplTest {
         assertEquals("У пользователя нет завершенного бронирования вещи с идентификатором 1",
                 exception.getMessage());
 
-        verify(userRepository, times(1)).findById(1L);
+        verify(userLookup, times(1)).findUserById(1L);
         verify(itemRepository, times(1)).findById(1L);
         verify(bookingRepository, times(1)).findBookingForAllowCommentPageable(Mockito.anyLong(),
                 Mockito.anyLong(), Mockito.any(LocalDateTime.class), Mockito.any(PageRequest.class));
@@ -419,7 +783,7 @@ class ItemServiceImplTest {
     void createComment_whenInvoked_thenSaveCommentAndReturnCommentView() {
         CommentRequest commentRequest = new CommentRequest();
         Comment comment = new Comment();
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
         when(itemRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(new Item()));
         when(bookingRepository.findBookingForAllowCommentPageable(Mockito.anyLong(), Mockito.anyLong(),
                 Mockito.any(LocalDateTime.class), Mockito.any(PageRequest.class))).thenReturn(List.of(new Booking()));
@@ -430,7 +794,7 @@ class ItemServiceImplTest {
         assertNotNull(actual);
         assertEquals(CommentMapper.toCommentView(comment), actual);
 
-        verify(userRepository, times(1)).findById(1L);
+        verify(userLookup, times(1)).findUserById(1L);
         verify(itemRepository, times(1)).findById(1L);
         verify(bookingRepository, times(1)).findBookingForAllowCommentPageable(Mockito.anyLong(), Mockito.anyLong(),
                 Mockito.any(LocalDateTime.class), Mockito.any(PageRequest.class));
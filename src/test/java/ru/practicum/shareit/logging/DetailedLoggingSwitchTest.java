@@ -0,0 +1,52 @@
+package ru.practicum.shareit.logging;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DetailedLoggingSwitchTest {
+    private final AtomicLong nanos = new AtomicLong();
+
+    private DetailedLoggingSwitch detailedLoggingSwitch;
+
+    @BeforeEach
+    void setUp() {
+        detailedLoggingSwitch = new DetailedLoggingSwitch(2, Duration.ofMinutes(15), nanos::get);
+    }
+
+    @Test
+    void isEnabled_whenExpireAfterWritePassed_thenDisabled() {
+        detailedLoggingSwitch.enable("1", "request-1");
+
+        nanos.addAndGet(Duration.ofMinutes(14).toNanos());
+        assertTrue(detailedLoggingSwitch.isEnabled("1", null));
+        assertTrue(detailedLoggingSwitch.isEnabled(null, "request-1"));
+
+        nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+        assertFalse(detailedLoggingSwitch.isEnabled("1", null));
+        assertFalse(detailedLoggingSwitch.isEnabled(null, "request-1"));
+    }
+
+    @Test
+    void enable_whenMoreRequestIdsThanMaximumSize_thenOnlyMaximumSizeKept() {
+        for (int i = 0; i < 10; i++) {
+            detailedLoggingSwitch.enable(null, "request-" + i);
+        }
+
+        assertEquals(2, detailedLoggingSwitch.getState().get("requestIds").size());
+    }
+
+    @Test
+    void disable_whenNoParameters_thenAllDisabled() {
+        detailedLoggingSwitch.enable("1", "request-1");
+
+        detailedLoggingSwitch.disable(null, null);
+
+        assertFalse(detailedLoggingSwitch.isEnabled("1", "request-1"));
+    }
+}
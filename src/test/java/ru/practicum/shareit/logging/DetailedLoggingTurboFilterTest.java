@@ -0,0 +1,44 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DetailedLoggingTurboFilterTest {
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    private DetailedLoggingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new DetailedLoggingTurboFilter();
+        filter.addLogger("org.hibernate.SQL");
+    }
+
+    @AfterEach
+    void tearDown() {
+        MDC.clear();
+    }
+
+    @Test
+    void decide_whenDetailedLoggingEnabledForRequest_thenSqlLoggerAccepted() {
+        MDC.put(RequestLoggingFilter.DETAILED_LOGGING_KEY, "true");
+
+        assertEquals(FilterReply.ACCEPT, filter.decide(null, loggerContext.getLogger("org.hibernate.SQL"),
+                Level.DEBUG, "select", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, loggerContext.getLogger("org.hibernate.engine"),
+                Level.DEBUG, "message", null, null));
+    }
+
+    @Test
+    void decide_whenDetailedLoggingNotEnabled_thenNeutral() {
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, loggerContext.getLogger("org.hibernate.SQL"),
+                Level.DEBUG, "select", null, null));
+    }
+}
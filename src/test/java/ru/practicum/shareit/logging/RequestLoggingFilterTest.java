@@ -0,0 +1,63 @@
+package ru.practicum.shareit.logging;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RequestLoggingFilterTest {
+    private DetailedLoggingSwitch detailedLoggingSwitch;
+
+    private RequestLoggingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        detailedLoggingSwitch = new DetailedLoggingSwitch(10, Duration.ofMinutes(15));
+        filter = new RequestLoggingFilter(detailedLoggingSwitch);
+    }
+
+    @SneakyThrows
+    @Test
+    void doFilter_whenDetailedLoggingEnabledForUser_thenMdcFilledDuringRequestAndClearedAfter() {
+        detailedLoggingSwitch.enable("1", null);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.addHeader(RequestLoggingFilter.USER_ID_HEADER, "1");
+        request.addHeader(RequestLoggingFilter.REQUEST_ID_HEADER, "request-1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Map<String, String> mdc = new HashMap<>();
+
+        filter.doFilter(request, response, (req, resp) -> mdc.putAll(MDC.getCopyOfContextMap()));
+
+        assertEquals("request-1", mdc.get(RequestLoggingFilter.REQUEST_ID_KEY));
+        assertEquals("1", mdc.get(RequestLoggingFilter.USER_ID_KEY));
+        assertEquals("true", mdc.get(RequestLoggingFilter.DETAILED_LOGGING_KEY));
+        assertEquals("request-1", response.getHeader(RequestLoggingFilter.REQUEST_ID_HEADER));
+        assertNull(MDC.get(RequestLoggingFilter.REQUEST_ID_KEY));
+        assertNull(MDC.get(RequestLoggingFilter.DETAILED_LOGGING_KEY));
+    }
+
+    @SneakyThrows
+    @Test
+    void doFilter_whenNoRequestIdAndNotEnabled_thenRequestIdGeneratedWithoutDetailedLogging() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.addHeader(RequestLoggingFilter.USER_ID_HEADER, "2");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        Map<String, String> mdc = new HashMap<>();
+
+        filter.doFilter(request, response, (req, resp) -> mdc.putAll(MDC.getCopyOfContextMap()));
+
+        assertNotNull(mdc.get(RequestLoggingFilter.REQUEST_ID_KEY));
+        assertNull(mdc.get(RequestLoggingFilter.DETAILED_LOGGING_KEY));
+        assertEquals(mdc.get(RequestLoggingFilter.REQUEST_ID_KEY),
+                response.getHeader(RequestLoggingFilter.REQUEST_ID_HEADER));
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SamplingTurboFilterTest {
+    private final LoggerContext loggerContext = new LoggerContext();
+
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new SamplingTurboFilter();
+        filter.setLoggerNameContains(".controller.");
+        filter.setRate(3);
+    }
+
+    @Test
+    void decide_whenControllerInfo_thenOneOfRatePassed() {
+        Logger logger = loggerContext.getLogger("ru.practicum.shareit.item.controller.ItemController");
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "message", null, null));
+        assertEquals(FilterReply.DENY, filter.decide(null, logger, Level.INFO, "message", null, null));
+        assertEquals(FilterReply.DENY, filter.decide(null, logger, Level.INFO, "message", null, null));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "message", null, null));
+    }
+
+    @Test
+    void decide_whenWarnOrOtherLogger_thenNotSampled() {
+        Logger controllerLogger = loggerContext.getLogger("ru.practicum.shareit.item.controller.ItemController");
+        Logger serviceLogger = loggerContext.getLogger("ru.practicum.shareit.item.service.ItemServiceImpl");
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, controllerLogger, Level.WARN, "message", null,
+                    null));
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, serviceLogger, Level.INFO, "message", null,
+                    null));
+        }
+    }
+}
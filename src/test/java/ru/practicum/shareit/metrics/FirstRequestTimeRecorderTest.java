@@ -0,0 +1,31 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FirstRequestTimeRecorderTest {
+    @Test
+    void onRequestHandled_whenSeveralRequests_thenOnlyFirstRecorded() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FirstRequestTimeRecorder recorder = new FirstRequestTimeRecorder(meterRegistry);
+
+        recorder.onRequestHandled(makeEvent("/items"));
+        double first = meterRegistry.get(FirstRequestTimeRecorder.FIRST_REQUEST).timeGauge()
+                .value(TimeUnit.MILLISECONDS);
+        recorder.onRequestHandled(makeEvent("/bookings"));
+
+        assertTrue(first > 0);
+        assertEquals(1, meterRegistry.find(FirstRequestTimeRecorder.FIRST_REQUEST).timeGauges().size());
+        assertEquals(first, meterRegistry.get(FirstRequestTimeRecorder.FIRST_REQUEST).timeGauge()
+                .value(TimeUnit.MILLISECONDS));
+    }
+
+    private ServletRequestHandledEvent makeEvent(String url) {
+        return new ServletRequestHandledEvent(this, url, "127.0.0.1", "GET", "dispatcherServlet", null, null, 1);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.practicum.shareit.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import ru.practicum.shareit.booking.BookingState;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ShareItMetricsAspectTest {
+    @Mock
+    private BookingService bookingService;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void timeService_whenListReturned_thenTimerTaggedWithStateAndResultSizeRecorded() {
+        when(bookingService.getBookingsByOwner(1L, BookingState.WAITING, null, null))
+                .thenReturn(List.of(new BookingView(), new BookingView()));
+
+        proxy(bookingService, BookingService.class).getBookingsByOwner(1L, BookingState.WAITING, null, null);
+
+        assertEquals(1, meterRegistry.get(ShareItMetricsAspect.SERVICE_INVOCATIONS)
+                .tags("service", "BookingService", "method", "getBookingsByOwner", "state", "WAITING",
+                        "exception", "none")
+                .timer().count());
+        assertEquals(2.0, meterRegistry.get(ShareItMetricsAspect.SERVICE_RESULT_SIZE)
+                .tags("service", "BookingService", "method", "getBookingsByOwner")
+                .summary().totalAmount());
+    }
+
+    @Test
+    void timeService_whenExceptionThrown_thenTimerTaggedWithException() {
+        when(bookingService.getBooking(1L, 1L)).thenThrow(new NotFoundException("not found"));
+        BookingService proxy = proxy(bookingService, BookingService.class);
+
+        assertThrows(NotFoundException.class, () -> proxy.getBooking(1L, 1L));
+
+        assertEquals(1, meterRegistry.get(ShareItMetricsAspect.SERVICE_INVOCATIONS)
+                .tags("method", "getBooking", "state", "none", "exception", "NotFoundException")
+                .timer().count());
+    }
+
+    @Test
+    void countRepositoryRows_whenListReturned_thenRowsRecorded() {
+        when(itemRepository.findItemBySearchText(Mockito.eq("text"), Mockito.any()))
+                .thenReturn(List.of(new Item(), new Item(), new Item()));
+
+        proxy(itemRepository, ItemRepository.class).findItemBySearchText("text", null);
+
+        assertEquals(3.0, meterRegistry.get(ShareItMetricsAspect.REPOSITORY_ROWS)
+                .tags("repository", "ItemRepository", "method", "findItemBySearchText")
+                .summary().totalAmount());
+    }
+
+    private <T> T proxy(T target, Class<T> type) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addInterface(type);
+        proxyFactory.addAspect(new ShareItMetricsAspect(meterRegistry));
+
+        return proxyFactory.getProxy();
+    }
+}
@@ -7,6 +7,7 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exeption.NotFoundException;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -23,6 +24,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemRequestController.class)
@@ -132,6 +134,22 @@ class ItemRequestControllerIT {
         verify(itemRequestService, times(1)).getItemRequestById(userId, requestId);
     }
 
+    @SneakyThrows
+    @Test
+    void getItemRequestById_whenIfNoneMatchIsCurrentETag_thenResponseStatusNotModified() {
+        Long userId = 1L;
+        Long requestId = 10L;
+        String etag = "\"request\"";
+        when(itemRequestService.getItemRequestETag(userId, requestId)).thenReturn(etag);
+
+        mockMvc.perform(get("/requests/{requestId}", requestId).header(USER, userId)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verify(itemRequestService, never()).getItemRequestById(Mockito.anyLong(), Mockito.anyLong());
+    }
+
     @SneakyThrows
     @Test
     void getItemRequestById_whenRequestIdIsNotValid_thenResponseStatusNotFound() {
@@ -8,6 +8,8 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestUserView;
 import ru.practicum.shareit.request.dto.ItemRequestView;
@@ -54,7 +56,8 @@ class ItemRequestControllerTest {
         final ItemRequestUserView itemRequestUserView = new ItemRequestUserView();
         when(itemRequestService.getItemRequestById(1L, 1L)).thenReturn(itemRequestUserView);
 
-        final ResponseEntity<ItemRequestUserView> actual = itemRequestController.getItemRequestById(1L, 1L);
+        final ResponseEntity<ItemRequestUserView> actual = itemRequestController.getItemRequestById(1L, 1L,
+                new ServletWebRequest(new MockHttpServletRequest()));
 
         assertEquals(HttpStatus.OK, actual.getStatusCode());
         assertEquals(itemRequestUserView, actual.getBody());
@@ -4,9 +4,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.shareitutils.pageable.OffsetPageRequest;
+import ru.practicum.shareit.shareitutils.sql.SqlStatementRecorder;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import java.time.LocalDateTime;
@@ -17,7 +22,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 
-@DataJpaTest
+@DataJpaTest(properties = SqlStatementRecorder.PROPERTY)
 class ItemRequestRepositoryIT {
     @Autowired
     private ItemRequestRepository itemRequestRepository;
@@ -25,6 +30,12 @@ class ItemRequestRepositoryIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     private User user2;
     private User user3;
     private ItemRequest itemRequest1;
@@ -108,4 +119,36 @@ class ItemRequestRepositoryIT {
         assertEquals(user2.getId(), itemRequests.get(0).getUser().getId());
         assertEquals(created.plusDays(1), itemRequests.get(0).getCreated());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findItemRequestsExcludingOwnPageable_whenInvoked_thenPageRequestIdsInSqlAndLoadItemsSeparately() {
+        itemRepository.save(new Item(null, "name_1", "description_1", true, user3, itemRequest1, null));
+        itemRepository.save(new Item(null, "name_2", "description_2", true, user3, itemRequest1, null));
+        entityManager.flush();
+        entityManager.clear();
+        SqlStatementRecorder.clear();
+
+        List<ItemRequest> itemRequests = itemRequestRepository
+                .findItemRequestsExcludingOwnPageable(user3.getId(), OffsetPageRequest.of(1, 1));
+
+        List<String> statements = SqlStatementRecorder.getStatements();
+        assertEquals(2, statements.size());
+        assertTrue(statements.get(0).toLowerCase().contains(" limit "), statements.get(0));
+        assertFalse(statements.get(1).toLowerCase().contains(" limit "), statements.get(1));
+        assertEquals(1, itemRequests.size());
+        assertEquals(itemRequest1.getId(), itemRequests.get(0).getId());
+        assertEquals(2, itemRequests.get(0).getItems().size());
+    }
+
+    @Test
+    void findItemRequestsExcludingOwnPageable_whenNoRequestsOnPage_thenSkipItemsQuery() {
+        entityManager.flush();
+        SqlStatementRecorder.clear();
+
+        List<ItemRequest> itemRequests = itemRequestRepository
+                .findItemRequestsExcludingOwnPageable(user3.getId(), OffsetPageRequest.of(10, 1));
+
+        assertEquals(0, itemRequests.size());
+        assertEquals(1, SqlStatementRecorder.count());
+    }
+}
@@ -8,14 +8,16 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestUserView;
 import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.shareitutils.etag.ContentStamp;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -31,7 +33,9 @@ class ItemRequestServiceImplTest {
     @Mock
     ItemRequestRepository itemRequestRepository;
     @Mock
-    UserRepository userRepository;
+    UserLookup userLookup;
+    @Mock
+    ItemRepository itemRepository;
 
     @InjectMocks
     ItemRequestServiceImpl itemRequestService;
@@ -42,7 +46,7 @@ class ItemRequestServiceImplTest {
         final User user = new User();
         final ItemRequestDto requestDto = new ItemRequestDto();
         final ItemRequest itemRequest = ItemRequestMapper.makeItemRequest(user, requestDto, dateTime);
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(user));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(user));
         when(itemRequestRepository.save(Mockito.any(ItemRequest.class))).thenReturn(itemRequest);
 
         final ItemRequestView actual = itemRequestService.create(1L, requestDto);
@@ -50,13 +54,13 @@ class ItemRequestServiceImplTest {
         assertNotNull(actual);
         assertEquals(ItemRequestMapper.toItemRequestView(itemRequest), actual);
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(itemRequestRepository, times(1)).save(Mockito.any(ItemRequest.class));
     }
 
     @Test
     void create_whenInvalidUserId_thenNotFoundExceptionThrown() {
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -66,7 +70,7 @@ class ItemRequestServiceImplTest {
         assertNotNull(exception);
         assertEquals("Пользователь c идентификатором 1 не найден", exception.getMessage());
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(itemRequestRepository, never()).save(Mockito.any(ItemRequest.class));
     }
 
@@ -75,7 +79,7 @@ class ItemRequestServiceImplTest {
         final User user = new User();
         user.setId(1L);
         final List<ItemRequest> itemRequests = List.of(new ItemRequest());
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(user));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(user));
         when(itemRequestRepository.findItemRequestsByUserId(Mockito.anyLong())).thenReturn(itemRequests);
 
         final List<ItemRequestUserView> actual = itemRequestService.getItemRequestsByUserId(1L);
@@ -83,13 +87,13 @@ class ItemRequestServiceImplTest {
         assertNotNull(actual);
         assertEquals(ItemRequestMapper.toItemRequestUserView(itemRequests), actual);
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(itemRequestRepository, times(1)).findItemRequestsByUserId(Mockito.anyLong());
     }
 
     @Test
     void getItemRequestsByUserId_whenInvalidUserId_thenNotFountExceptionThrown() {
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -99,14 +103,14 @@ class ItemRequestServiceImplTest {
         assertNotNull(exception);
         assertEquals("Пользователь c идентификатором 1 не найден", exception.getMessage());
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(itemRequestRepository, never()).findItemRequestsByUserId(Mockito.anyLong());
     }
 
     @Test
     void getItemRequestById_whenInvoked_thenReturnItemRequestView() {
         final ItemRequest itemRequest = new ItemRequest();
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
         when(itemRequestRepository.findItemRequestsById(Mockito.anyLong())).thenReturn(Optional.of(itemRequest));
 
         final ItemRequestUserView actual = itemRequestService.getItemRequestById(1L, 1L);
@@ -114,13 +118,13 @@ class ItemRequestServiceImplTest {
         assertNotNull(actual);
         assertEquals(ItemRequestMapper.toItemRequestUserView(itemRequest), actual);
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(itemRequestRepository, times(1)).findItemRequestsById(Mockito.anyLong());
     }
 
     @Test
     void getItemRequestById_whenInvalidUserId_thenNotFoundExceptionThrown() {
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -130,13 +134,13 @@ class ItemRequestServiceImplTest {
         assertNotNull(exception);
         assertEquals("Пользователь c идентификатором 1 не найден", exception.getMessage());
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(itemRequestRepository, never()).findItemRequestsById(Mockito.anyLong());
     }
 
     @Test
     void getItemRequestById_whenInvalidItemRequestId_thenNotFoundExceptionThrown() {
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
         when(itemRequestRepository.findItemRequestsById(Mockito.anyLong())).thenReturn(Optional.empty());
 
 
@@ -148,16 +152,43 @@ class ItemRequestServiceImplTest {
         assertNotNull(exception);
         assertEquals("Запрос c идентификатором 1 не найден", exception.getMessage());
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(itemRequestRepository, times(1)).findItemRequestsById(Mockito.anyLong());
     }
 
+    @Test
+    void getItemRequestETag_whenItemAdded_thenETagChangedAndItemsNotLoaded() {
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
+        when(itemRequestRepository.findById(1L)).thenReturn(Optional.of(new ItemRequest()));
+        when(itemRepository.findItemStampByRequestId(1L))
+                .thenReturn(new ContentStamp(0L, 0L, 0L), new ContentStamp(1L, 11L, 0L));
+
+        assertNotEquals(itemRequestService.getItemRequestETag(1L, 1L), itemRequestService.getItemRequestETag(1L, 1L));
+
+        verify(itemRequestRepository, never()).findItemRequestsById(Mockito.anyLong());
+    }
+
+    @Test
+    void getItemRequestETag_whenInvalidItemRequestId_thenNotFoundExceptionThrown() {
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(new User()));
+        when(itemRequestRepository.findById(1L)).thenReturn(Optional.empty());
+
+        final NotFoundException exception = assertThrows(
+                NotFoundException.class,
+                () -> itemRequestService.getItemRequestETag(1L, 1L)
+        );
+
+        assertEquals("Запрос c идентификатором 1 не найден", exception.getMessage());
+
+        verify(itemRepository, never()).findItemStampByRequestId(Mockito.anyLong());
+    }
+
     @Test
     void getItemRequestsPageable_whenInvokedWithNotNullFromAndSize_thenReturnCollectionItemRequestUserView() {
         final User user = new User();
         user.setId(1L);
         final List<ItemRequest> itemRequests = List.of(new ItemRequest());
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(user));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(user));
         when(itemRequestRepository.findItemRequestsExcludingOwnPageable(Mockito.anyLong(),
                 Mockito.any(Pageable.class))).thenReturn(itemRequests);
 
@@ -166,7 +197,7 @@ class ItemRequestServiceImplTest {
         assertNotNull(actual);
         assertEquals(ItemRequestMapper.toItemRequestUserView(itemRequests), actual);
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(itemRequestRepository, times(1)).findItemRequestsExcludingOwnPageable(Mockito.anyLong(),
                 Mockito.any(Pageable.class));
     }
@@ -174,21 +205,21 @@ class ItemRequestServiceImplTest {
     @Test
     void getItemRequestsPageable_whenInvokedWitNullFromOrSize_thenReturnEmptyList() {
         final User user = new User();
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.of(user));
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.of(user));
 
         List<ItemRequestUserView> actual = itemRequestService.getItemRequestsPageable(1L, null, null);
 
         assertNotNull(actual);
         assertEquals(0, actual.size());
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(itemRequestRepository, never()).findItemRequestsExcludingOwnPageable(Mockito.anyLong(),
                 Mockito.any(Pageable.class));
     }
 
     @Test
     void getItemRequestsPageable_whenInvalidUserId_thenNotFoundExceptionThrown() {
-        when(userRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+        when(userLookup.findUserById(Mockito.anyLong())).thenReturn(Optional.empty());
 
         final NotFoundException exception = assertThrows(
                 NotFoundException.class,
@@ -198,7 +229,7 @@ class ItemRequestServiceImplTest {
         assertNotNull(exception);
         assertEquals("Пользователь c идентификатором 1 не найден", exception.getMessage());
 
-        verify(userRepository, times(1)).findById(Mockito.anyLong());
+        verify(userLookup, times(1)).findUserById(Mockito.anyLong());
         verify(itemRequestRepository, never()).findItemRequestsExcludingOwnPageable(Mockito.anyLong(),
                 Mockito.any(Pageable.class));
     }
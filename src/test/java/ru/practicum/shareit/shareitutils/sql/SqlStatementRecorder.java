@@ -0,0 +1,35 @@
+package ru.practicum.shareit.shareitutils.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Запись SQL-выражений, которые Hibernate отправляет в базу данных из текущего потока.
+ * Подключается свойством {@link #PROPERTY}.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+    public static final String PROPERTY = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+            "ru.practicum.shareit.shareitutils.sql.SqlStatementRecorder";
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql);
+
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.get().clear();
+    }
+
+    public static List<String> getStatements() {
+        return new ArrayList<>(STATEMENTS.get());
+    }
+
+    public static int count() {
+        return STATEMENTS.get().size();
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserLookupTest {
+    @Mock
+    private UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private UserLookup userLookup;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        userLookup = new UserLookup(userRepository, meterRegistry, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void findUserById_whenInvokedTwice_thenRepositoryInvokedOnce() {
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(new User(1L, "user", "user@mail.com")));
+
+        final Optional<User> first = userLookup.findUserById(1L);
+        final Optional<User> second = userLookup.findUserById(1L);
+
+        assertTrue(first.isPresent());
+        assertTrue(second.isPresent());
+        assertEquals("user", second.get().getName());
+        assertNotSame(first.get(), second.get());
+
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void findUserById_whenUserNotExists_thenResultNotCached() {
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.empty());
+
+        assertTrue(userLookup.findUserById(1L).isEmpty());
+        assertTrue(userLookup.findUserById(1L).isEmpty());
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void invalidate_whenInvoked_thenUserReloaded() {
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(new User(1L, "user", "user@mail.com")))
+                .thenReturn(Optional.of(new User(1L, "userUpd", "userUpd@mail.com")));
+
+        userLookup.findUserById(1L);
+        userLookup.invalidate(1L);
+        final Optional<User> actual = userLookup.findUserById(1L);
+
+        assertTrue(actual.isPresent());
+        assertEquals("userUpd", actual.get().getName());
+
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void findUserById_whenInvoked_thenHitsAndMissesRecorded() {
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(new User(1L, "user", "user@mail.com")));
+
+        userLookup.findUserById(1L);
+        userLookup.findUserById(1L);
+
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "users", "result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tags("cache", "users", "result", "miss")
+                .functionCounter().count());
+    }
+}
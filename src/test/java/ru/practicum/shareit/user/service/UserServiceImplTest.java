@@ -1,5 +1,7 @@
 package ru.practicum.shareit.user.service;
 
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -8,6 +10,9 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.exeption.ConflictException;
 import ru.practicum.shareit.exeption.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -26,6 +31,18 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserLookup userLookup;
+
+    @Mock
+    private ItemSearchIndex itemSearchIndex;
+
+    @Mock
+    private SessionFactory sessionFactory;
+
+    @Mock
+    private Cache cache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -102,7 +119,7 @@ class UserServiceImplTest {
 
     @Test
     void create_whenInvoked_thenCreateUser() {
-        when(userRepository.save(Mockito.any(User.class)))
+        when(userRepository.saveAndFlush(Mockito.any(User.class)))
                 .thenReturn(new User(1L, "user1", "user1@mail.com"));
 
         final UserDto actual = userService.create(new UserDto(null, "user1", "user1@mail.com"));
@@ -112,12 +129,12 @@ class UserServiceImplTest {
         assertEquals("user1", actual.getName());
         assertEquals("user1@mail.com", actual.getEmail());
 
-        verify(userRepository, times(1)).save(Mockito.any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(Mockito.any(User.class));
     }
 
     @Test
     void create_whenEmailAlreadyExists_thenConflictExceptionThrown() {
-        when(userRepository.save(Mockito.any(User.class)))
+        when(userRepository.saveAndFlush(Mockito.any(User.class)))
                 .thenThrow(new ConflictException("Конфликт"));
 
         final ConflictException exception = assertThrows(
@@ -128,7 +145,7 @@ class UserServiceImplTest {
         assertNotNull(exception);
         assertEquals("Конфликт", exception.getMessage());
 
-        verify(userRepository, times(1)).save(Mockito.any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(Mockito.any(User.class));
     }
 
     @Test
@@ -136,7 +153,7 @@ class UserServiceImplTest {
         when(userRepository.findById(Mockito.anyLong()))
                 .thenReturn(Optional.of(new User(1L, "user", "user@mail.com")));
 
-        when(userRepository.save(Mockito.any(User.class)))
+        when(userRepository.saveAndFlush(Mockito.any(User.class)))
                 .thenReturn(new User(1L, "userUpd", "userUpd@mail.com"));
 
         final UserDto actual = userService.update(new UserDto(1L, "userUpd", "userUpd@mail.com"));
@@ -147,7 +164,8 @@ class UserServiceImplTest {
         assertEquals("userUpd@mail.com", actual.getEmail());
 
         verify(userRepository, times(1)).findById(Mockito.anyLong());
-        verify(userRepository, times(1)).save(Mockito.any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(Mockito.any(User.class));
+        verify(userLookup, times(1)).invalidate(1L);
     }
 
     @Test
@@ -164,7 +182,7 @@ class UserServiceImplTest {
         assertEquals("Пользователь с идентификатором 1 не найден", exception.getMessage());
 
         verify(userRepository, times(1)).findById(1L);
-        verify(userRepository, never()).save(Mockito.any(User.class));
+        verify(userRepository, never()).saveAndFlush(Mockito.any(User.class));
     }
 
     @Test
@@ -172,7 +190,7 @@ class UserServiceImplTest {
         when(userRepository.findById(1L))
                 .thenReturn(Optional.of(new User(1L, "user", "user@mail.com")));
 
-        when(userRepository.save(Mockito.any(User.class)))
+        when(userRepository.saveAndFlush(Mockito.any(User.class)))
                 .thenThrow(new ConflictException("Конфликт"));
 
         final ConflictException exception = assertThrows(
@@ -184,17 +202,24 @@ class UserServiceImplTest {
         assertEquals("Конфликт", exception.getMessage());
 
         verify(userRepository, times(1)).findById(1L);
-        verify(userRepository, times(1)).save(Mockito.any(User.class));
+        verify(userRepository, times(1)).saveAndFlush(Mockito.any(User.class));
     }
 
     @Test
     void delete_whenInvoked_thenDeleteUserById() {
         when(userRepository.findById(Mockito.anyLong()))
                 .thenReturn(Optional.of(new User(1L, "user", "user@mail.com")));
+        when(sessionFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
 
         userService.delete(1L);
 
         verify(userRepository, times(1)).findById(1L);
         verify(userRepository, times(1)).delete(Mockito.any(User.class));
+        verify(userLookup, times(1)).invalidate(1L);
+        verify(itemSearchIndex, times(1)).removeByOwnerId(1L);
+        verify(cache, times(1)).evictEntityData(Item.class);
+        verify(cache, times(1)).evictEntityData(ItemRequest.class);
+        verify(cache, times(1)).evictQueryRegions();
     }
 }
\ No newline at end of file